@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Benchmarks;
+
+/**
+ * A very small benchmark harness. Each benchmark is warmed up until the JIT
+ * has had a go at it, then timed over several measurement rounds. Every
+ * benchmark returns a value which is folded into a sink so the work can't be
+ * optimised away.
+ *
+ * @author Jim Darby
+ */
+public class Benchmark
+{
+    /**
+     * This is the code being measured. It must do its operation n times and
+     * return something that depends on the work done.
+     */
+    public interface Body
+    {
+        /**
+         * Perform the operation n times.
+         *
+         * @param n The number of times.
+         * @return A value depending on the work done.
+         *
+         * @throws Exception In case of trouble.
+         */
+        long run (int n) throws Exception;
+    }
+
+    /**
+     * Create a harness with the default timings.
+     */
+    public Benchmark ()
+    {
+        this (1000, 5, 200);
+    }
+
+    /**
+     * Create a harness with specific timings.
+     *
+     * @param warmup_ms How long to warm up each benchmark for in milliseconds.
+     * @param rounds The number of measurement rounds.
+     * @param round_ms How long each round lasts in milliseconds.
+     */
+    public Benchmark (int warmup_ms, int rounds, int round_ms)
+    {
+        if (warmup_ms < 0 || rounds < 1 || round_ms < 1)
+            throw new IllegalArgumentException ("Invalid benchmark timings");
+
+        this.warmup_ns = warmup_ms * 1000000L;
+        this.rounds = rounds;
+        this.round_ns = round_ms * 1000000L;
+    }
+
+    /**
+     * Run a benchmark and print the result.
+     *
+     * @param name The name to print.
+     * @param per_op How many units each operation covers (say pixels per
+     * frame). The time is reported per unit.
+     * @param body The code to measure.
+     * @return The best time per unit in nanoseconds.
+     *
+     * @throws Exception In case of trouble.
+     */
+    public double run (String name, int per_op, Body body) throws Exception
+    {
+        // Warm up, growing n until a call takes a reasonable time.
+        int n = 1;
+        long time = 0;
+        final long warm_end = System.nanoTime () + warmup_ns;
+
+        do
+        {
+            final long start = System.nanoTime ();
+
+            sink += body.run (n);
+            time = System.nanoTime () - start;
+
+            if (time < round_ns / 10 && n < Integer.MAX_VALUE / 2)
+                n *= 2;
+        }
+        while (System.nanoTime () < warm_end);
+
+        // Now measure
+        double best = Double.MAX_VALUE;
+        double total = 0;
+        long ops = 0;
+
+        for (int r = 0; r < rounds; ++r)
+        {
+            final long end = System.nanoTime () + round_ns;
+            long round_time = 0;
+            long round_ops = 0;
+
+            while (System.nanoTime () < end)
+            {
+                final long start = System.nanoTime ();
+
+                sink += body.run (n);
+                round_time += System.nanoTime () - start;
+                round_ops += n;
+            }
+
+            final double per = round_time / (double) (round_ops * per_op);
+
+            if (per < best)
+                best = per;
+
+            total += round_time;
+            ops += round_ops;
+        }
+
+        System.out.printf ("%-44s %10.2f ns (best %10.2f ns)%n", name, total / (ops * per_op), best);
+
+        return best;
+    }
+
+    /**
+     * Return the sink. Printing this at the end makes sure nothing was
+     * optimised out.
+     *
+     * @return The sink value.
+     */
+    public long getSink ()
+    {
+        return sink;
+    }
+
+    /** How long to warm up for. */
+    private final long warmup_ns;
+    /** The number of rounds. */
+    private final int rounds;
+    /** How long each round is. */
+    private final long round_ns;
+    /** Where the results go so they can't be optimised away. */
+    private volatile long sink = 0;
+}
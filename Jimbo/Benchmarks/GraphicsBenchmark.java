@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Benchmarks;
+
+import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.CompiledMapping;
+import Jimbo.Graphics.FlipX;
+import Jimbo.Graphics.FlipY;
+import Jimbo.Graphics.FrameBuffer;
+import Jimbo.Graphics.Mapping;
+import Jimbo.Graphics.Point;
+import Jimbo.Graphics.Snake;
+import Jimbo.Graphics.SwapXY;
+import Jimbo.Graphics.VirtualColourMatrix;
+import Jimbo.Graphics.VirtualMonoMatrix;
+
+/**
+ * Benchmarks for the hot paths in the Graphics package. Everything runs
+ * against the virtual matrices so the numbers don't depend on any hardware.
+ * All times are per pixel (or per call where there are no pixels).
+ *
+ * @author Jim Darby
+ */
+public class GraphicsBenchmark
+{
+    /**
+     * Run the benchmarks.
+     *
+     * @param args The command line arguments. If there's one it's the warm up
+     * time in milliseconds for each benchmark.
+     *
+     * @throws Exception In case of trouble.
+     */
+    public static void main (String args[]) throws Exception
+    {
+        final Benchmark b = (args.length > 0) ?
+                new Benchmark (Integer.parseInt (args[0]), 5, 200) :
+                new Benchmark ();
+
+        final VirtualColourMatrix c = new VirtualColourMatrix (SIZE, SIZE);
+        final VirtualMonoMatrix m = new VirtualMonoMatrix (SIZE, SIZE);
+        final int pixels = SIZE * SIZE;
+
+        System.out.println ("ColourMatrix entry points (" + SIZE + 'x' + SIZE + ", per pixel)");
+
+        b.run ("setPixel (int, int, int, int, int)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        c.setPixel (x, y, x, y, i & 0xff);
+
+            return c.getData ()[i_mid];
+        });
+
+        b.run ("setPixel (Point, int, int, int)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        c.setPixel (Point.of (x, y), x, y, i & 0xff);
+
+            return c.getData ()[i_mid];
+        });
+
+        b.run ("setPixel (int, int, Colour)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        c.setPixel (x, y, new Colour (x, y, i & 0xff));
+
+            return c.getData ()[i_mid];
+        });
+
+        b.run ("setPixel (Point, Colour)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        c.setPixel (Point.of (x, y), new Colour (x, y, i & 0xff));
+
+            return c.getData ()[i_mid];
+        });
+
+        b.run ("setPixel (new Point, Colour)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        c.setPixel (new Point (x, y), new Colour (x, y, i & 0xff));
+
+            return c.getData ()[i_mid];
+        });
+
+        final int[] frame = new int[pixels];
+
+        b.run ("setPixels (int[], ...)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+            {
+                frame[i & (pixels - 1)] = i;
+                c.setPixels (frame, 0, 0, SIZE, SIZE);
+            }
+
+            return c.getData ()[i_mid];
+        });
+
+        System.out.println ();
+        System.out.println ("MonoMatrix entry points (per pixel)");
+
+        b.run ("setPixel (int, int, int)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        m.setPixel (x, y, (x + y + i) & 0xff);
+
+            return m.getData ()[i_mid];
+        });
+
+        final byte[] levels = new byte[pixels];
+
+        b.run ("setPixels (byte[], ...)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+            {
+                levels[i & (pixels - 1)] = (byte) i;
+                m.setPixels (levels, 0, 0, SIZE, SIZE);
+            }
+
+            return m.getData ()[i_mid];
+        });
+
+        b.run ("setPixel (int, int, double)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        m.setPixel (x, y, ((x + y + i) & 0xff) / 255.0);
+
+            return m.getData ()[i_mid];
+        });
+
+        b.run ("setPixel (Point, Double)", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                        m.setPixel (Point.of (x, y), Double.valueOf (((x + y + i) & 0xff) / 255.0));
+
+            return m.getData ()[i_mid];
+        });
+
+        System.out.println ();
+        System.out.println ("Mapping chains (per point)");
+
+        final Mapping[] chains = {
+            new Snake (SIZE, SIZE),
+            new FlipX (new Snake (SIZE, SIZE)),
+            new SwapXY (new FlipX (new Snake (SIZE, SIZE))),
+            new FlipY (new SwapXY (new FlipX (new Snake (SIZE, SIZE))))
+        };
+
+        for (int depth = 0; depth < chains.length; ++depth)
+        {
+            final Mapping map = chains[depth];
+            final CompiledMapping compiled = map.compile ();
+
+            b.run ("Mapping.map depth " + (depth + 1), pixels, n ->
+            {
+                long sum = 0;
+
+                for (int i = 0; i < n; ++i)
+                    for (int y = 0; y < SIZE; ++y)
+                        for (int x = 0; x < SIZE; ++x)
+                            sum += map.map (Point.of (x, y)).getX ();
+
+                return sum;
+            });
+
+            b.run ("CompiledMapping.mapIndex depth " + (depth + 1), pixels, n ->
+            {
+                long sum = 0;
+
+                for (int i = 0; i < n; ++i)
+                    for (int y = 0; y < SIZE; ++y)
+                        for (int x = 0; x < SIZE; ++x)
+                            sum += compiled.mapIndex (x, y);
+
+                return sum;
+            });
+        }
+
+        System.out.println ();
+        System.out.println ("Colour wheel (per colour)");
+
+        b.run ("new Colour (double)", 1, n ->
+        {
+            long sum = 0;
+
+            for (int i = 0; i < n; ++i)
+                sum += new Colour ((i % 3601) / 10.0).getRGB ();
+
+            return sum;
+        });
+
+        b.run ("Colour.wheel (int)", 1, n ->
+        {
+            long sum = 0;
+
+            for (int i = 0; i < n; ++i)
+                sum += Colour.wheel (i % 3601);
+
+            return sum;
+        });
+
+        System.out.println ();
+        System.out.println ("Rainbow frame including show (per pixel)");
+
+        final int max = SIZE - 1;
+        final double max_distance = Math.sqrt (max * max + max * max);
+
+        b.run ("Point/Colour per pixel", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+            {
+                final int phase = i % 360;
+
+                for (int y = 0; y < SIZE; ++y)
+                    for (int x = 0; x < SIZE; ++x)
+                    {
+                        double value = 360 * (1 - Math.sqrt (x*x + y*y) / max_distance) + phase;
+
+                        if (value > 360)
+                            value -= 360;
+
+                        c.setPixel (Point.of (x, y), new Colour (value));
+                    }
+
+                c.show ();
+            }
+
+            return c.getFrameCount ();
+        });
+
+        final FrameBuffer fb = new FrameBuffer (c);
+        final int[] fb_data = fb.getData ();
+        final int[] base = new int[pixels];
+
+        for (int y = 0; y < SIZE; ++y)
+            for (int x = 0; x < SIZE; ++x)
+                base[x + SIZE * y] = (int) (Colour.WHEEL_STEPS * (1 - Math.sqrt (x*x + y*y) / max_distance));
+
+        b.run ("Packed wheel and setPixels", pixels, n ->
+        {
+            for (int i = 0; i < n; ++i)
+            {
+                final int phase = (i % 360) * 10;
+
+                for (int j = 0; j < pixels; ++j)
+                {
+                    int value = base[j] + phase;
+
+                    if (value > Colour.WHEEL_STEPS)
+                        value -= Colour.WHEEL_STEPS;
+
+                    fb_data[j] = Colour.wheel (value);
+                }
+
+                fb.show (c);
+            }
+
+            return c.getFrameCount ();
+        });
+
+        System.out.println ();
+        System.out.println ("Sink " + b.getSink ());
+    }
+
+    /** The size of the matrices. Must be a power of two. */
+    private static final int SIZE = 16;
+    /** A pixel in the middle to read back. */
+    private static final int i_mid = SIZE * SIZE / 2 + SIZE / 2;
+}
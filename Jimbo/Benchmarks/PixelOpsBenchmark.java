@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Benchmarks;
+
+import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.PixelOps;
+
+/**
+ * Benchmarks for the PixelOps kernels against a straightforward channel at a
+ * time version of each, on a few common frame sizes. Times are per pixel for
+ * a scale, blend, interpolate and saturating add in turn.
+ *
+ * @author Jim Darby
+ */
+public class PixelOpsBenchmark
+{
+    /**
+     * Run the benchmarks.
+     *
+     * @param args The command line arguments. If there's one it's the warm up
+     * time in milliseconds for each benchmark.
+     *
+     * @throws Exception In case of trouble.
+     */
+    public static void main (String args[]) throws Exception
+    {
+        final Benchmark b = (args.length > 0) ?
+                new Benchmark (Integer.parseInt (args[0]), 5, 200) :
+                new Benchmark ();
+
+        for (int size : SIZES)
+        {
+            final int n = size * size;
+            final int[] a = new int[n];
+            final int[] s = new int[n];
+            final int[] d = new int[n];
+
+            for (int i = 0; i < n; ++i)
+            {
+                a[i] = Colour.wheel ((i * 37) % (Colour.WHEEL_STEPS + 1));
+                s[i] = (0x80 << 24) | PixelOps.scale (Colour.wheel ((i * 91) % (Colour.WHEEL_STEPS + 1)), 0x80);
+            }
+
+            System.out.println (size + "x" + size + " (per pixel)");
+
+            b.run ("PixelOps", n, count ->
+            {
+                for (int r = 0; r < count; ++r)
+                {
+                    System.arraycopy (a, 0, d, 0, n);
+                    PixelOps.scale (d, 0, n, 200);
+                    PixelOps.blend (d, s, 0, n);
+                    PixelOps.lerp (d, d, a, 0, n, r & 0xff);
+                    PixelOps.addSaturate (d, a, 0, n);
+                }
+
+                return d[n / 2];
+            });
+
+            b.run ("Channel at a time", n, count ->
+            {
+                for (int r = 0; r < count; ++r)
+                {
+                    System.arraycopy (a, 0, d, 0, n);
+                    plainScale (d, n, 200);
+                    plainBlend (d, s, n);
+                    plainLerp (d, d, a, n, r & 0xff);
+                    plainAdd (d, a, n);
+                }
+
+                return d[n / 2];
+            });
+
+            System.out.println ();
+        }
+
+        System.out.println ("Sink " + b.getSink ());
+    }
+
+    /**
+     * A channel at a time scale for comparison.
+     *
+     * @param d The frame.
+     * @param n The number of pixels.
+     * @param by The scale.
+     */
+    private static void plainScale (int[] d, int n, int by)
+    {
+        for (int i = 0; i < n; ++i)
+        {
+            final int r = ((d[i] >> 16) & 0xff) * by / 255;
+            final int g = ((d[i] >> 8) & 0xff) * by / 255;
+            final int b = (d[i] & 0xff) * by / 255;
+
+            d[i] = (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * A channel at a time blend for comparison.
+     *
+     * @param d The frame underneath.
+     * @param s The premultiplied frame on top.
+     * @param n The number of pixels.
+     */
+    private static void plainBlend (int[] d, int[] s, int n)
+    {
+        for (int i = 0; i < n; ++i)
+        {
+            final int inv = 255 - (s[i] >>> 24);
+            final int r = ((s[i] >> 16) & 0xff) + ((d[i] >> 16) & 0xff) * inv / 255;
+            final int g = ((s[i] >> 8) & 0xff) + ((d[i] >> 8) & 0xff) * inv / 255;
+            final int b = (s[i] & 0xff) + (d[i] & 0xff) * inv / 255;
+
+            d[i] = (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * A channel at a time interpolation for comparison.
+     *
+     * @param d Where the result goes.
+     * @param x The first frame.
+     * @param y The second frame.
+     * @param n The number of pixels.
+     * @param t The position.
+     */
+    private static void plainLerp (int[] d, int[] x, int[] y, int n, int t)
+    {
+        for (int i = 0; i < n; ++i)
+        {
+            final int r = (((x[i] >> 16) & 0xff) * (255 - t) + ((y[i] >> 16) & 0xff) * t) / 255;
+            final int g = (((x[i] >> 8) & 0xff) * (255 - t) + ((y[i] >> 8) & 0xff) * t) / 255;
+            final int b = ((x[i] & 0xff) * (255 - t) + (y[i] & 0xff) * t) / 255;
+
+            d[i] = (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * A channel at a time saturating add for comparison.
+     *
+     * @param d The frame added to.
+     * @param s The frame to add.
+     * @param n The number of pixels.
+     */
+    private static void plainAdd (int[] d, int[] s, int n)
+    {
+        for (int i = 0; i < n; ++i)
+        {
+            final int r = Math.min (255, ((d[i] >> 16) & 0xff) + ((s[i] >> 16) & 0xff));
+            final int g = Math.min (255, ((d[i] >> 8) & 0xff) + ((s[i] >> 8) & 0xff));
+            final int b = Math.min (255, (d[i] & 0xff) + (s[i] & 0xff));
+
+            d[i] = (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /** The frame sizes to try. */
+    private static final int[] SIZES = {8, 16, 64};
+}
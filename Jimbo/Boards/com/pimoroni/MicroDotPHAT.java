@@ -20,18 +20,27 @@ package Jimbo.Boards.com.pimoroni;
 
 import com.pi4j.io.i2c.I2CBus;
 
+import Jimbo.Devices.BusExecutor;
 import Jimbo.Devices.Pi2C;
 import Jimbo.Devices.IS31FL3730;
+import Jimbo.Devices.Retrier;
+import Jimbo.Devices.RetryPolicy;
+import Jimbo.Graphics.BitMatrix;
+import Jimbo.Graphics.Point;
+import Jimbo.Graphics.text.Marquee;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class interfaces to the Pimoroni Micro Dot pHAT. It consists of three
  * IS31FL3730 controller chips wired to six displays in a delightfully unusual
- * manner. I blame the grog!
+ * manner. I blame the grog! The decimal points aren't part of the matrix.
  * 
  * @author Jim Darby
  */
-public class MicroDotPHAT
+public class MicroDotPHAT implements BitMatrix
 {
     /**
      * Constructor - builds an object to handle the device. Only one may be used
@@ -43,6 +52,8 @@ public class MicroDotPHAT
     public MicroDotPHAT () throws IOException, InterruptedException
     {
         final I2CBus bus = Pi2C.useBus ();
+        
+        executor = Pi2C.useExecutor ();
     
         for (int i = 0; i < driver.length; ++i)
         {
@@ -78,6 +89,79 @@ public class MicroDotPHAT
         if ( x< 0 || x >= WIDTH || y < 0 || y >= HEIGHT)
             throw new IOException ("Invalid coordidinates");
         
+        put (x, y, on);
+    }
+    
+    /**
+     * Sets a pixel on or off in the generic way.
+     * 
+     * @param x The x coordinate, range 0 to 29.
+     * @param y The y coordinate, range 0 to 6.
+     * @param on Make the pixel light up?
+     */
+    @Override
+    public void setPixel (int x, int y, boolean on)
+    {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT)
+            throw new IllegalArgumentException ("Invalid co-ordinates for set");
+        
+        put (x, y, on);
+    }
+    
+    /**
+     * Return the width of the matrix.
+     * 
+     * @return The width in pixels.
+     */
+    @Override
+    public int getWidth ()
+    {
+        return WIDTH;
+    }
+    
+    /**
+     * Return the height of the matrix.
+     * 
+     * @return The height in pixels.
+     */
+    @Override
+    public int getHeight ()
+    {
+        return HEIGHT;
+    }
+    
+    /**
+     * Return a point with the maximum values for X and Y in this matrix.
+     * 
+     * @return The maximum size.
+     */
+    @Override
+    public Point getMax ()
+    {
+        return MAX;
+    }
+    
+    /**
+     * Update the display in the generic way.
+     * 
+     * @throws IOException In case of problems.
+     */
+    @Override
+    public void show () throws IOException
+    {
+        update ();
+    }
+    
+    /**
+     * Set a single bit in our copy of the display. The coordinates have
+     * already been checked.
+     * 
+     * @param x The x coordinate, range 0 to 29.
+     * @param y The y coordinate, range 0 to 6.
+     * @param on Make the pixel light up?
+     */
+    private void put (int x, int y, boolean on)
+    {
         // Now figure out the display and the coordinates on it.
         final int index = x / 10;
         final boolean left = (x % 10) < 5;
@@ -147,6 +231,51 @@ public class MicroDotPHAT
             driver[i].update ();
         }
     }
+    
+    /**
+     * Update the physical device without waiting. The frame is copied and
+     * queued on the bus. If it fails it's tried again later, with backoff,
+     * while the caller carries on, and if a newer frame has been queued by
+     * then it's dropped rather than overwriting it. After enough failed
+     * frames in a row the display is left alone for a second.
+     * @return A future that completes when the frame has been written or
+     * dropped.
+     */
+    public CompletableFuture <Void> updateAsync ()
+    {
+        final byte[][] f1 = new byte[driver.length][];
+        final byte[][] f2 = new byte[driver.length][];
+        
+        for (int i = 0; i < driver.length; ++i)
+        {
+            f1[i] = m1[i].clone ();
+            f2[i] = m2[i].clone ();
+        }
+        
+        final long frame = frames.incrementAndGet ();
+        
+        return retrier.runAsync (executor, () ->
+        {
+            if (frames.get () == frame)
+                for (int i = 0; i < driver.length; ++i)
+                {
+                    driver[i].fastUpdateM1 (f1[i]);
+                    driver[i].fastUpdateM2 (f2[i]);
+                    driver[i].update ();
+                }
+            
+            return null;
+        });
+    }
+    
+    /**
+     * Set the retry policy used by updateAsync.
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
+    }
    
     /**
      * Set the PWM of the board.
@@ -162,13 +291,18 @@ public class MicroDotPHAT
     
     /**
      * Basic test routine.
-     * @param args Command line arguments, ignored.
+     * @param args Command line arguments. If there are any they are scrolled
+     * across the display as a message.
      * @throws IOException In case of error.
      * @throws InterruptedException In case of error.
      */
     public static void main (String[] args) throws IOException, InterruptedException
     {
         final MicroDotPHAT m = new MicroDotPHAT ();
+        
+        if (args.length > 0)
+            Marquee.run (m, String.join (" ", args), 50);
+        
         boolean setting = true;
         int pwm = 128;
     
@@ -205,12 +339,23 @@ public class MicroDotPHAT
     public static final int WIDTH = 30;
     /** The height of the device. */
     public static final int HEIGHT = 7;
+    /** The top right pixel. */
+    private static final Point MAX = new Point (WIDTH - 1, HEIGHT - 1);
     
     /** The addresses, left to right, of the chips */
     private static final int[] ADDRS = { 0x63, 0x62, 0x61 };
     /** Our drivers for each chip. */
     private final IS31FL3730 driver[] = new IS31FL3730[ADDRS.length];
     
+    /** The executor for the bus. */
+    private final BusExecutor executor;
+    /** Retries frames sent by updateAsync. */
+    private final Retrier retrier = new Retrier (FRAME_RETRY, null);
+    /** The number of the latest frame queued by updateAsync. */
+    private final AtomicLong frames = new AtomicLong ();
+    /** The default policy for frames sent by updateAsync. */
+    private static final RetryPolicy FRAME_RETRY = RetryPolicy.exponential (5, 1, 16, TimeUnit.MILLISECONDS).withJitter (0.5).withCircuitBreaker (10, 1, TimeUnit.SECONDS);
+    
     /** Local cache of M1 data. */
     private final byte[][] m1 = new byte[driver.length][8];
     /** Local cache of M2 data. */
@@ -22,6 +22,7 @@ import java.io.IOException;
 
 import Jimbo.Devices.SN3218;
 import Jimbo.Devices.Pi2C;
+import Jimbo.Graphics.FramePacer;
 
 /**
  * This class allows control of the Piglow from Pimoroni.
@@ -315,6 +316,8 @@ public class Piglow
         pg.setLeg2 (0);
         pg.update ();
         
+        final FramePacer pacer = new FramePacer (250);
+        
         while (true)
         {
             for (int step = 0; step < 256; ++step)
@@ -328,7 +331,7 @@ public class Piglow
                 pg.setBlues   (toLed (Math.sin (Math.PI * 4 / 6 + offset)));
                 pg.setWhites  (toLed (Math.sin (Math.PI * 5 / 6 + offset)));
                 pg.update     ();
-                Thread.sleep (4);
+                pacer.sync    ();
             }
         }
     }
@@ -32,11 +32,14 @@ import Jimbo.Devices.HT16K33;
 import Jimbo.Devices.BMP280;
 import Jimbo.Devices.APA102;
 import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.ColourCorrection;
 import Jimbo.Graphics.ColourMatrix;
 import Jimbo.Graphics.ColourMatrixDemo;
+import Jimbo.Graphics.Compositor;
+import Jimbo.Graphics.FramePacer;
 import Jimbo.Graphics.MatrixHelper;
 import Jimbo.Graphics.FlipX;
-import Jimbo.Graphics.Mapping;
+import Jimbo.Graphics.CompiledMapping;
 
 import java.io.IOException;
 import java.time.LocalTime;
@@ -85,8 +88,19 @@ public class RainbowHAT
         green.setState (false);
         blue. setState (false);
         
+        // The rainbow runs on the bottom layer and the state is shown as an
+        // overlay so the two don't fight over the LEDs.
+        final Compositor leds = new Compositor (r.getLEDs ());
+        final Compositor.Layer background = leds.addLayer ();
+        final Compositor.Layer overlay = leds.addLayer ();
+        
+        overlay.setARGB ((state - 1) * 3, 0, 0xc0ffffff);
+        overlay.show ();
+        
         if (rainbow)
-            new Thread (new ColourMatrixDemo (r.getLEDs ())).start ();
+            new Thread (new ColourMatrixDemo (background)).start ();
+        
+        final FramePacer pacer = new FramePacer (50);
         
         while (true)
         {
@@ -153,6 +167,10 @@ public class RainbowHAT
                 red.  setState (state == 1);
                 green.setState (state == 2);
                 blue. setState (state == 3);
+                
+                overlay.clear ();
+                overlay.setARGB ((state - 1) * 3, 0, 0xc0ffffff);
+                overlay.show ();
             }
             
             r.setPoint (0, false);
@@ -219,7 +237,7 @@ public class RainbowHAT
             
             r.update ();
             
-            Thread.sleep (20);
+            pacer.sync ();
         }
     }
 
@@ -422,7 +440,7 @@ public class RainbowHAT
             apa102 = new APA102 (gpio, RaspiPin.GPIO_12, RaspiPin.GPIO_14, WIDTH);
             cs.high ();
             
-            map = new FlipX (WIDTH, HEIGHT);
+            map = new FlipX (WIDTH, HEIGHT).compile ();
         }
 
         /**
@@ -438,7 +456,45 @@ public class RainbowHAT
         @Override
         public void setPixel (int x, int y, int r, int g, int b)
         {
-            apa102.setPixel (x, y, r, g, b);
+            apa102.setPixel (map.mapIndex (x, y), r, g, b);
+        }
+
+        /**
+         * Sets a rectangle of pixels from packed 0xRRGGBB values. Each one
+         * goes through the mapping to the right LED.
+         * 
+         * @param rgb The packed pixel data.
+         * @param x The X coordinate of the start of the run.
+         * @param y The Y coordinate. Must be zero.
+         * @param w The number of pixels.
+         * @param h The height. Must be zero or one.
+         */
+        @Override
+        public void setPixels (int[] rgb, int x, int y, int w, int h)
+        {
+            validateArea (rgb.length, x, y, w, h);
+            
+            if (h == 0)
+                return;
+            
+            for (int i = 0; i < w; ++i)
+            {
+                final int value = rgb[i];
+                
+                apa102.setPixel (map.mapIndex (x + i),
+                        (value >> 16) & 0xff, (value >> 8) & 0xff, value & 0xff);
+            }
+        }
+
+        /**
+         * Set every LED to the same colour.
+         * 
+         * @param rgb The colour in the form 0xRRGGBB.
+         */
+        @Override
+        public void fill (int rgb)
+        {
+            apa102.fill (rgb);
         }
 
         /**
@@ -464,12 +520,23 @@ public class RainbowHAT
             apa102.brightness(brightness);
         }
         
+        /**
+         * Set the colour correction applied as pixels are set. It affects
+         * pixels set after this call.
+         * 
+         * @param correction The correction or null for none.
+         */
+        public void setColourCorrection (ColourCorrection correction)
+        {
+            apa102.setColourCorrection (correction);
+        }
+        
         /** Point to the underlying APA102 driver. */
         private final APA102 apa102;
         /** Select pin. */
         private final GpioPinDigitalOutput cs;
         /** Point mapping. */
-        private final Mapping map;
+        private final CompiledMapping map;
     }
         
     /**
@@ -57,12 +57,86 @@ public class ScrollPHATHD extends MatrixHelper <Integer> implements MonoMatrix
      * displayed and it will transfer it to the device and hence actually
      * display it.
      * 
+     * Drawing goes to a hidden back frame. Here we send the changes to that
+     * and then flip the display to it in a single write, so a half updated
+     * picture is never seen. The old front frame becomes the new back frame
+     * and is brought up to date in memory; the differences go with the next
+     * show.
+     * 
      * @throws IOException In case of problems.
      */
     @Override
     public void show () throws IOException
     {
-        phat.update ();
+        final int front = back;
+        
+        phat.updateFrame (front);
+        phat.showFrame (front);
+        
+        back = (front == FRAME_A) ? FRAME_B : FRAME_A;
+        phat.copyFrame (front, back);
+    }
+    
+    /**
+     * Load up to eight frames into the device and have it play them round
+     * and round by itself. After this no I2C traffic or CPU time is needed
+     * until stopAnimation is called. Don't draw or show while it's playing.
+     * 
+     * @param frames The frames. Each one is laid out as for setPixels, a row
+     * at a time from the bottom left, WIDTH * HEIGHT unsigned levels.
+     * @param delay The time to show each frame in milliseconds (11 to 704).
+     * 
+     * @throws IOException In case of problems.
+     */
+    public void startAnimation (byte[][] frames, int delay) throws IOException
+    {
+        if (frames.length < 1 || frames.length > IS31FL3731.NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid number of frames " + frames.length);
+        
+        for (int f = 0; f < frames.length; ++f)
+        {
+            final byte[] levels = frames[f];
+            
+            validateArea (levels.length, 0, 0, WIDTH, HEIGHT);
+            
+            for (int y = 0; y < HEIGHT; ++y)
+                for (int x = 0; x < WIDTH; ++x)
+                    phat.setLed (f, led (x, y), levels[x + WIDTH * y] & 0xff);
+        }
+        
+        phat.startAutoPlay (0, frames.length, 0, delay);
+    }
+    
+    /**
+     * Set up breathing for an animation. See IS31FL3731.setBreathing.
+     * 
+     * @param on Turn breathing on or off.
+     * @param fade_in The fade in time exponent: 0 to 7.
+     * @param fade_out The fade out time exponent: 0 to 7.
+     * @param extinguish The off time exponent: 0 to 7.
+     * 
+     * @throws IOException In case of problems.
+     */
+    public void setBreathing (boolean on, int fade_in, int fade_out, int extinguish) throws IOException
+    {
+        phat.setBreathing (on, fade_in, fade_out, extinguish);
+    }
+    
+    /**
+     * Stop an animation and go back to normal drawing. The animation has
+     * overwritten what was drawn before so the display starts off blank.
+     * 
+     * @throws IOException In case of problems.
+     */
+    public void stopAnimation () throws IOException
+    {
+        phat.clearFrame (FRAME_A);
+        phat.clearFrame (FRAME_B);
+        phat.updateFrame (FRAME_A);
+        phat.showFrame (FRAME_A);
+        phat.stopAutoPlay ();
+        
+        back = FRAME_B;
     }
     
     /**
@@ -79,6 +153,38 @@ public class ScrollPHATHD extends MatrixHelper <Integer> implements MonoMatrix
         if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
             throw new IllegalArgumentException ("Invalid co-ordinates for set");
         
+        phat.setLed (back, led (x, y), pwm);
+    }
+    
+    /**
+     * Sets a rectangle of pixels from unsigned byte levels. The area is
+     * checked once and each value goes straight to the device's buffer.
+     * 
+     * @param levels The levels, treated as unsigned.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (byte[] levels, int x, int y, int w, int h)
+    {
+        validateArea (levels.length, x, y, w, h);
+        
+        for (int j = 0; j < h; ++j)
+            for (int i = 0; i < w; ++i)
+                phat.setLed (back, led (x + i, y + j), levels[i + w * j] & 0xff);
+    }
+    
+    /**
+     * Work out the LED number for a (valid) pixel.
+     * 
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The LED number.
+     */
+    private int led (int x, int y)
+    {
         if (flip_x)
             x = MAX_X - x;
         
@@ -97,7 +203,7 @@ public class ScrollPHATHD extends MatrixHelper <Integer> implements MonoMatrix
             x = 15 - x * 2;
         }
         
-        phat.setLed (0, x * 8 + y, pwm);
+        return x * 8 + y;
     }
     
     /**
@@ -134,6 +240,12 @@ public class ScrollPHATHD extends MatrixHelper <Integer> implements MonoMatrix
     
     /** The device itself. */
     private final IS31FL3731 phat;
+    /** The frame we draw into, the other one is displayed. */
+    private int back = FRAME_B;
+    /** The first of the pair of frames we flip between. */
+    private static final int FRAME_A = 0;
+    /** The second of the pair of frames we flip between. */
+    private static final int FRAME_B = 1;
     /** Flag to flip the x coordinate. */
     private boolean flip_x = false;
     /** Flag to flip the y coordinate. */
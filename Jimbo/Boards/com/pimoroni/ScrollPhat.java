@@ -27,6 +27,8 @@ import Jimbo.Graphics.Point;
 import Jimbo.Graphics.BitMatrix;
 import Jimbo.Graphics.MatrixHelper;
 import Jimbo.Graphics.BitMatrixDemo;
+import Jimbo.Graphics.PackedBitFrame;
+import Jimbo.Graphics.text.Marquee;
 
 import Jimbo.Devices.IS31FL3730;
 
@@ -107,6 +109,40 @@ public class ScrollPhat extends MatrixHelper <Boolean> implements BitMatrix
     }
     
     
+    /**
+     * Sets the pixels covered by a PackedBitFrame. The display holds a byte
+     * per column so each column of the frame goes in with a single mask and
+     * or.
+     * 
+     * @param f The frame.
+     * @param x The X coordinate for the frame's bottom left.
+     * @param y The Y coordinate for the frame's bottom left.
+     */
+    @Override
+    public void setPixels (PackedBitFrame f, int x, int y)
+    {
+        if (x < 0 || y < 0 || x + f.WIDTH > WIDTH || y + f.HEIGHT > HEIGHT)
+            throw new IllegalArgumentException ("PackedBitFrame doesn't fit at (" + x + ',' + y + ')');
+        
+        int mask = ((1 << f.HEIGHT) - 1) << y;
+        
+        // We flip around Y because the board is wired "upside down".
+        if (!flip_y)
+            mask = Integer.reverse (mask) >>> (32 - HEIGHT);
+        
+        for (int i = 0; i < f.WIDTH; ++i)
+        {
+            int column = (int) f.getColumn (i) << y;
+            
+            if (!flip_y)
+                column = Integer.reverse (column) >>> (32 - HEIGHT);
+            
+            final int target = flip_x ? MAX_X - (x + i) : x + i;
+            
+            data[target] = (byte) ((data[target] & ~mask) | column);
+        }
+    }
+    
     /**
      * Set a pixel in the generic way.
      * 
@@ -157,7 +193,8 @@ public class ScrollPhat extends MatrixHelper <Boolean> implements BitMatrix
     /**
      * Test routine.
      * 
-     * @param args the command line arguments
+     * @param args the command line arguments. If there are any they are
+     * scrolled across the display as a message.
      * @throws java.io.IOException In case of problem.
      * @throws java.lang.InterruptedException In case of problem.
      * @throws com.pi4j.io.i2c.I2CFactory.UnsupportedBusNumberException In case of problem.
@@ -168,6 +205,9 @@ public class ScrollPhat extends MatrixHelper <Boolean> implements BitMatrix
         
         s.setTriesWarning (0);
         
-        BitMatrixDemo.run (s);
+        if (args.length > 0)
+            Marquee.run (s, String.join (" ", args), 50);
+        else
+            BitMatrixDemo.run (s);
     }
 }
@@ -24,6 +24,7 @@ import Jimbo.Devices.WS2811.WS2811Raw;
 import Jimbo.Graphics.Snake;
 
 import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.ColourCorrection;
 import Jimbo.Graphics.ColourMatrix;
 import Jimbo.Graphics.ColourMatrixDemo;
 import Jimbo.Graphics.MatrixHelper;
@@ -102,6 +103,44 @@ public class UnicornHAT extends MatrixHelper <Colour> implements ColourMatrix
         h.setPixel (p, c);
     }*/
     
+    /**
+     * Sets a rectangle of pixels from packed 0xRRGGBB values. This passes
+     * straight through to the underlying driver.
+     * 
+     * @param rgb The packed pixel data.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (int[] rgb, int x, int y, int w, int h)
+    {
+        this.h.setPixels (rgb, x, y, w, h);
+    }
+    
+    /**
+     * Set every pixel to the same colour.
+     * 
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    @Override
+    public void fill (int rgb)
+    {
+        h.fill (rgb);
+    }
+    
+    /**
+     * Set the colour correction applied as pixels are set. It affects pixels
+     * set after this call.
+     * 
+     * @param correction The correction or null for none.
+     */
+    public void setColourCorrection (ColourCorrection correction)
+    {
+        h.setColourCorrection (correction);
+    }
+    
     /**
      * Update the display.
      */
@@ -21,8 +21,12 @@ package Jimbo.Boards.com.pimoroni;
 import java.util.Arrays;
 import java.io.IOException;
 
+import Jimbo.Devices.BusMetrics;
+import Jimbo.Devices.Retrier;
+import Jimbo.Devices.RetryPolicy;
 import Jimbo.Graphics.Point;
 import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.ColourCorrection;
 import Jimbo.Graphics.ColourMatrix;
 import Jimbo.Graphics.ColourMatrixDemo;
 import Jimbo.Graphics.MatrixHelper;
@@ -47,9 +51,11 @@ public class UnicornHATHD extends MatrixHelper <Colour> implements ColourMatrix
     {
         super (16, 16);
         
-        dev = SpiFactory.getInstance (SpiChannel.CS0, 9000000, SpiDevice.DEFAULT_SPI_MODE);
+        dev = BusMetrics.wrap (SpiFactory.getInstance (SpiChannel.CS0, 9000000, SpiDevice.DEFAULT_SPI_MODE), 0, SpiChannel.CS0);
+        retrier = new Retrier (RetryPolicy.NONE, BusMetrics.get (0, SpiChannel.CS0));
         Arrays.fill (data, (byte) 0);
         data[0] = 0x72;
+        dirty = true;
         show ();
     }
     
@@ -73,10 +79,16 @@ public class UnicornHATHD extends MatrixHelper <Colour> implements ColourMatrix
             throw new IllegalArgumentException ("Invalid colour for setPixel");
         
         final int base = (x + WIDTH * (MAX_Y - y)) * 3 + 1;
+        final ColourCorrection c = correction;
         
-        data[base    ] = (byte) r;
-        data[base + 1] = (byte) g;
-        data[base + 2] = (byte) b;
+        if (c == null)
+            put (base, (byte) r, (byte) g, (byte) b);
+        else
+        {
+            final int value = c.correct (r, g, b);
+            
+            put (base, (byte) (value >> 16), (byte) (value >> 8), (byte) value);
+        }
     }
     
     /**
@@ -94,12 +106,129 @@ public class UnicornHATHD extends MatrixHelper <Colour> implements ColourMatrix
     }
     
     /**
-      * Update the display.
+     * Sets a rectangle of pixels from packed 0xRRGGBB values. The area is
+     * checked once and then the values are copied straight into the data
+     * we send to the hat.
+     *
+     * @param rgb The packed pixel data.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (int[] rgb, int x, int y, int w, int h)
+    {
+        validateArea (rgb.length, x, y, w, h);
+
+        final ColourCorrection c = correction;
+
+        for (int j = 0; j < h; ++j)
+        {
+            int in = w * j;
+            int out = (x + WIDTH * (MAX_Y - y - j)) * 3 + 1;
+
+            for (int i = 0; i < w; ++i)
+            {
+                final int value = (c == null) ? rgb[in++] : c.correct (rgb[in++]);
+
+                put (out, (byte) (value >> 16), (byte) (value >> 8), (byte) value);
+                out += 3;
+            }
+        }
+    }
+
+    /**
+     * Set every pixel to the same colour.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    @Override
+    public void fill (int rgb)
+    {
+        final ColourCorrection c = correction;
+        final int value = (c == null) ? rgb : c.correct (rgb);
+        final byte r = (byte) (value >> 16);
+        final byte g = (byte) (value >> 8);
+        final byte b = (byte) value;
+
+        for (int i = 1; i < data.length; i += 3)
+            put (i, r, g, b);
+    }
+
+    /**
+      * Update the display. The hat needs the whole frame each time so there's
+      * no partial update but if nothing has changed nothing is sent.
+      * 
+      * @throws IOException In case of trouble.
       */
     @Override
     public final void show () throws IOException
     {
-        dev.write (data, 0, data.length);
+        if (!dirty)
+            return;
+        
+        retrier.run (() -> dev.write (data, 0, data.length));
+        dirty = false;
+    }
+    
+    /**
+     * Set the retry policy for writes. The default is not to retry.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
+    }
+    
+    /**
+     * Set the colour correction applied as pixels are set. It affects pixels
+     * set after this call.
+     * 
+     * @param correction The correction or null for none.
+     */
+    public void setColourCorrection (ColourCorrection correction)
+    {
+        this.correction = correction;
+    }
+    
+    /**
+     * Return the colour correction in use.
+     * 
+     * @return The correction or null if there isn't one.
+     */
+    public ColourCorrection getColourCorrection ()
+    {
+        return correction;
+    }
+    
+    /**
+     * Mark the display as changed so the next show sends it even if nothing
+     * has been drawn.
+     */
+    public void invalidate ()
+    {
+        dirty = true;
+    }
+    
+    /**
+     * Put a pixel's values into the data, noting if anything changed.
+     * 
+     * @param base The index of the red value.
+     * @param r The red value.
+     * @param g The green value.
+     * @param b The blue value.
+     */
+    private void put (int base, byte r, byte g, byte b)
+    {
+        if (data[base] != r || data[base + 1] != g || data[base + 2] != b)
+        {
+            data[base    ] = r;
+            data[base + 1] = g;
+            data[base + 2] = b;
+            dirty = true;
+        }
     }
     
     /**
@@ -121,4 +250,10 @@ public class UnicornHATHD extends MatrixHelper <Colour> implements ColourMatrix
     private final byte data[] = new byte [WIDTH * HEIGHT * 3 + 1];
     /** The SPI device we're going to use. */
     private final SpiDevice dev;
+    /** Retries writes as the policy says. */
+    private final Retrier retrier;
+    /** Has anything changed since the last show? */
+    private boolean dirty;
+    /** The colour correction to apply or null for none. */
+    private ColourCorrection correction = null;
 }
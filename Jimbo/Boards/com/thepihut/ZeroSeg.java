@@ -24,6 +24,7 @@ import com.pi4j.io.gpio.GpioController;
 import com.pi4j.io.gpio.GpioPinDigitalInput;
 
 import Jimbo.Devices.MAX7219;
+import Jimbo.Graphics.FramePacer;
 import java.io.IOException;
 
 import java.time.LocalTime;
@@ -189,6 +190,7 @@ public class ZeroSeg
         int intensity = 8;
         boolean old_right = true;
         boolean intensity_up = true;
+        final FramePacer pacer = new FramePacer (100);
         
         while (true)
         {
@@ -288,7 +290,7 @@ public class ZeroSeg
                 }
             }
             
-            Thread.sleep (10);
+            pacer.sync ();
         }
     }
         
@@ -93,6 +93,31 @@ public class LightShow implements MonoMatrix
         data[x + WIDTH * (MAX_Y - y)] = (byte) (pwm >> 5);
     }
     
+    /**
+     * Sets a rectangle of pixels from unsigned byte levels. The area is
+     * checked once and the values go straight into the data we send.
+     * 
+     * @param levels The levels, treated as unsigned.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (byte[] levels, int x, int y, int w, int h)
+    {
+        if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > WIDTH || y + h > HEIGHT || levels.length < w * h)
+            throw new IllegalArgumentException ("Invalid parameters for setPixels");
+        
+        for (int j = 0; j < h; ++j)
+        {
+            final int out = x + WIDTH * (MAX_Y - y - j);
+            
+            for (int i = 0; i < w; ++i)
+                data[out + i] = (byte) ((levels[i + w * j] & 0xff) >> 5);
+        }
+    }
+    
    /**
      * Set a pixel in the generic way.
      * 
@@ -119,6 +144,28 @@ public class LightShow implements MonoMatrix
         port.write (data);
     }
     
+    /**
+     * Return the width of the display.
+     * 
+     * @return The width in pixels.
+     */
+    @Override
+    public int getWidth ()
+    {
+        return WIDTH;
+    }
+    
+    /**
+     * Return the height of the display.
+     * 
+     * @return The height in pixels.
+     */
+    @Override
+    public int getHeight ()
+    {
+        return HEIGHT;
+    }
+    
     /**
      * Return the maximum X and Y values as a Point.
      * 
@@ -165,7 +212,7 @@ public class LightShow implements MonoMatrix
     /** The maximum Y value. */
     public final static int MAX_Y = HEIGHT - 1;
     /** The maximum values as a Point. */
-    private final static Point MAX = new Point (MAX_X, MAX_Y);
+    private final static Point MAX = Point.of (MAX_X, MAX_Y);
 
     /** Start marker. */
     private static final byte START = 0x55;
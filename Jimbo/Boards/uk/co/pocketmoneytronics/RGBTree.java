@@ -51,7 +51,7 @@ public class RGBTree
      */
     public void setPixel (int n, int r, int g, int b)
     {
-        tree.setPixel (new Point (n, 0), r, g, b);
+        tree.setPixel (Point.of (n, 0), r, g, b);
     }
     
     /**
@@ -62,7 +62,7 @@ public class RGBTree
      */
     public void setPixel (int n, Colour c)
     {
-        tree.setPixel (new Point (n, 0), c);
+        tree.setPixel (Point.of (n, 0), c);
     }
     
     /**
@@ -23,6 +23,7 @@ import com.pi4j.io.gpio.GpioPinDigitalOutput;
 import com.pi4j.io.gpio.Pin;
 
 import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.ColourCorrection;
 import Jimbo.Graphics.ColourMatrix;
 import Jimbo.Graphics.MatrixHelper;
 
@@ -50,6 +51,7 @@ public class APA102 extends MatrixHelper <Colour> implements ColourMatrix
         dat = gpio.provisionDigitalOutputPin (data_pin);
         clk = gpio.provisionDigitalOutputPin (clock_pin);
         data = new int[n];
+        last_frame = new LastFrame (n);
         
         // Set all off to start with. Java actually defines that the array is
         // initialised with zeros but this is here just to emphasise that.
@@ -78,7 +80,9 @@ public class APA102 extends MatrixHelper <Colour> implements ColourMatrix
             bright < 0 || bright > MAX_BRIGHT)
             throw new IllegalArgumentException ("Invalid parameter");
         
-        data[n] = (bright << 24) | (r << 16) | (g << 8) | b;
+        final ColourCorrection c = correction;
+        
+        data[n] = (bright << 24) | ((c == null) ? (r << 16) | (g << 8) | b : c.correct (r, g, b));
     }
     
     /**
@@ -115,11 +119,55 @@ public class APA102 extends MatrixHelper <Colour> implements ColourMatrix
     }
     
     /**
-     * Update the LED chain.
+     * Sets a rectangle of pixels from packed 0xRRGGBB values. The brightness
+     * comes from the default we've set earlier. As we're a single line the
+     * rectangle must be on row zero.
+     *
+     * @param rgb The packed pixel data.
+     * @param x The X coordinate of the start of the run.
+     * @param y The Y coordinate. Must be zero.
+     * @param w The number of pixels.
+     * @param h The height. Must be zero or one.
+     */
+    @Override
+    public void setPixels (int[] rgb, int x, int y, int w, int h)
+    {
+        validateArea (rgb.length, x, y, w, h);
+
+        if (h == 0)
+            return;
+
+        final int bright = brightness << 24;
+        final ColourCorrection c = correction;
+
+        for (int i = 0; i < w; ++i)
+            data[x + i] = bright | ((c == null) ? rgb[i] & 0xffffff : c.correct (rgb[i]));
+    }
+
+    /**
+     * Set every LED to the same colour. The brightness comes from the default
+     * we've set earlier.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    @Override
+    public void fill (int rgb)
+    {
+        final ColourCorrection c = correction;
+        
+        Arrays.fill (data, (brightness << 24) | ((c == null) ? rgb & 0xffffff : c.correct (rgb)));
+    }
+
+    /**
+     * Update the LED chain. If nothing has changed since the last update
+     * nothing is sent.
      */
     @Override
     public final void show ()
     {
+        if (!last_frame.changed (data))
+            return;
+        
         // Transmit preamble
         for (int i = 0; i < 4; ++i)
             write_byte ((byte) 0);
@@ -132,6 +180,38 @@ public class APA102 extends MatrixHelper <Colour> implements ColourMatrix
         latch ();
     }
     
+    /**
+     * Return the record of the last frame sent. This keeps count of the
+     * frames suppressed because they hadn't changed.
+     * 
+     * @return The LastFrame.
+     */
+    public LastFrame getLastFrame ()
+    {
+        return last_frame;
+    }
+    
+    /**
+     * Set the colour correction applied as pixels are set. It affects pixels
+     * set after this call.
+     * 
+     * @param correction The correction or null for none.
+     */
+    public void setColourCorrection (ColourCorrection correction)
+    {
+        this.correction = correction;
+    }
+    
+    /**
+     * Return the colour correction in use.
+     * 
+     * @return The correction or null if there isn't one.
+     */
+    public ColourCorrection getColourCorrection ()
+    {
+        return correction;
+    }
+    
     /**
      * Scale the brightness to avoid blindness.
      * 
@@ -213,6 +293,10 @@ public class APA102 extends MatrixHelper <Colour> implements ColourMatrix
     private final GpioPinDigitalOutput clk;
     /** The data for each LED in the chain. */
     private final int[] data;
+    /** The record of the last frame sent. */
+    private final LastFrame last_frame;
+    /** The colour correction to apply or null for none. */
+    private ColourCorrection correction = null;
     /** Scale factor for brightness. Defaults to quarter power because Pimoroni. */
     private byte brightness = MAX_BRIGHT / 4;
     
@@ -107,19 +107,16 @@ public class BMP280
     {
         // Get a device object to use for communication.
         device = bus.getDevice (dev);
+        retrier = new Retrier (RetryPolicy.NONE, BusMetrics.get (bus, dev));
         
         // Verify it really is a BMP280
-        final int signature = device.read (SIGNATURE_REG);
+        final int signature = retrier.run (() -> device.read (SIGNATURE_REG));
         
         if (signature != SIGNATURE)
             throw new IOException ("BMP280: Invalid signature (" + signature + ')');
         
         // Load the device calibration data (all in one go!).
-        final int got = device.read (CALIBRATION_REG, buffer, 0, BUFFER_SIZE);
-        
-        // Did we get it all?
-        if (got != BUFFER_SIZE)
-            throw new IOException ("BMP280: Failed to read calibration coefficients");
+        readAll (CALIBRATION_REG, BUFFER_SIZE, "BMP280: Failed to read calibration coefficients");
         
         // The values are all 16-bit but T1 and P1 are unsigned. As Java
         // doesn't have unsigned variables but bytes are signed we take great
@@ -156,6 +153,7 @@ public class BMP280
     private BMP280 ()
     {
         device = null;
+        retrier = null;
         
         T1 = 27504;
         T2 = 26435;
@@ -211,7 +209,7 @@ public class BMP280
         final byte value = (byte) ((temperature_oversampling << 5) |
                 (pressure_oversampling << 2) | power_mode);
         
-        device.write (CONTROL_REG, value);
+        write (CONTROL_REG, value);
     }
     
     /**
@@ -232,13 +230,22 @@ public class BMP280
         
         final byte value = (byte) ((inactive << 5) | (filter << 2) | (spi ? 1 : 0));
         
-        device.write (CONFIG_REG, value);
+        write (CONFIG_REG, value);
+    }
+    
+    /**
+     * Set the retry policy for bus transactions. The default is not to retry.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
     }
     
     public Result read () throws IOException
     {
-        if (device.read (RESULTS_REG, buffer, 0, DATA_SIZE) != DATA_SIZE)
-            throw new IOException ("BMP280: Short data read");
+        readAll (RESULTS_REG, DATA_SIZE, "BMP280: Short data read");
 
         final int pressure_adc = ((buffer[0] & 0xff) << 12) +
                 ((buffer[1] & 0xff) << 4) + ((buffer[2] & 0xff) >> 4);
@@ -261,6 +268,44 @@ public class BMP280
         return new Result (pressure, temperature);
     }
     
+    /**
+     * Write a register, retrying as the policy says.
+     * 
+     * @param reg The register.
+     * @param value The value.
+     * 
+     * @throws IOException In case of error.
+     */
+    private void write (int reg, byte value) throws IOException
+    {
+        retrier.run (() ->
+        {
+            device.write (reg, value);
+            return null;
+        });
+    }
+    
+    /**
+     * Read a block of registers into the buffer, retrying as the policy says.
+     * A short read counts as a failure and is retried like any other.
+     * 
+     * @param reg The first register.
+     * @param size The number of bytes to read.
+     * @param message What to say if it comes up short.
+     * 
+     * @throws IOException In case of error.
+     */
+    private void readAll (int reg, int size, String message) throws IOException
+    {
+        retrier.run (() ->
+        {
+            if (device.read (reg, buffer, 0, size) != size)
+                throw new IOException (message);
+            
+            return null;
+        });
+    }
+    
     /**
      * Calculate the compensated temperature using the integer version
      * of the algorithm.
@@ -489,6 +534,8 @@ public class BMP280
     
     /** The I2C device. */
     private final I2CDevice device;
+    /** Retries bus transactions as the policy says. */
+    private final Retrier retrier;
     /** Buffer used for reading results. */
     private final byte[] buffer = new byte[BUFFER_SIZE];
     
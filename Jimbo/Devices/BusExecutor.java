@@ -0,0 +1,713 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+import com.pi4j.io.i2c.I2CBus;
+import com.pi4j.io.i2c.I2CDevice;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class owns an I2C bus and does all the transactions on it from a
+ * single thread. Requests from any number of threads go onto a lock-free
+ * queue and each one gets a future that completes when it's been done, so
+ * two devices on the same bus, or two threads using the same device, can
+ * never interleave their transactions.
+ * <p>
+ * Register writes that arrive back to back for the same device and register
+ * are coalesced: if the later one writes at least as many bytes the earlier
+ * one would be overwritten anyway, so it's skipped and its future completes
+ * with the later one. Nothing is ever reordered.
+ * <p>
+ * Existing device classes don't need to change. The bus returned by getBus
+ * hands out devices that put each call through the queue and wait for it,
+ * so they see the same results and exceptions as before.
+ *
+ * @author Jim Darby
+ */
+public class BusExecutor implements AutoCloseable
+{
+    /**
+     * An operation done on the bus thread.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface Operation <T>
+    {
+        /**
+         * Perform the operation.
+         *
+         * @return The result.
+         *
+         * @throws IOException In case of trouble.
+         */
+        T perform () throws IOException;
+    }
+
+    /**
+     * Take ownership of a bus and start its thread.
+     *
+     * @param bus The bus.
+     */
+    public BusExecutor (I2CBus bus)
+    {
+        this.bus = bus;
+        wrapped = (I2CBus) Proxy.newProxyInstance (I2CBus.class.getClassLoader (),
+                new Class <?>[] { I2CBus.class }, new BusHandler ());
+
+        thread = new Thread (this::run, "BusExecutor i2c-" + bus.getBusNumber ());
+        thread.setDaemon (true);
+        thread.start ();
+    }
+
+    /**
+     * Return a bus that does everything through this executor. Devices
+     * created from it can be used from any thread.
+     *
+     * @return The bus.
+     */
+    public I2CBus getBus ()
+    {
+        return wrapped;
+    }
+
+    /**
+     * Return the bus this executor owns. Using it directly bypasses the
+     * queue.
+     *
+     * @return The underlying bus.
+     */
+    public I2CBus getRawBus ()
+    {
+        return bus;
+    }
+
+    /**
+     * Queue an arbitrary operation. Use this to group several transactions
+     * so that nothing else can get in between them. The operation runs on
+     * the bus thread and anything it does through getBus is done there and
+     * then rather than queued behind itself.
+     *
+     * @param <T> The type of the result.
+     * @param op The operation.
+     * @return A future for the result.
+     */
+    public <T> CompletableFuture <T> submit (Operation <T> op)
+    {
+        final CompletableFuture <T> result = new CompletableFuture <> ();
+
+        enqueue (new Request (-1, -1, null, result, op));
+
+        return result;
+    }
+
+    /**
+     * Queue a write of bytes to a register. The data is copied so the
+     * buffer can be reused straight away.
+     *
+     * @param address The device address.
+     * @param register The register.
+     * @param data The data.
+     * @param offset The offset of the first byte.
+     * @param size The number of bytes.
+     * @return A future that completes once written.
+     */
+    public CompletableFuture <Void> write (int address, int register, byte[] data, int offset, int size)
+    {
+        if (offset < 0 || size < 0 || offset + size > data.length)
+            throw new IllegalArgumentException ("Invalid write of " + size + " bytes at " + offset);
+
+        final byte[] copy = new byte[size];
+
+        System.arraycopy (data, offset, copy, 0, size);
+
+        final CompletableFuture <Void> result = new CompletableFuture <> ();
+
+        enqueue (new Request (address, register, copy, result, null));
+
+        return result;
+    }
+
+    /**
+     * Queue a write of a single byte to a register.
+     *
+     * @param address The device address.
+     * @param register The register.
+     * @param value The value.
+     * @return A future that completes once written.
+     */
+    public CompletableFuture <Void> write (int address, int register, byte value)
+    {
+        return write (address, register, new byte[] { value }, 0, 1);
+    }
+
+    /**
+     * Queue a read of a single register.
+     *
+     * @param address The device address.
+     * @param register The register.
+     * @return A future for the value read.
+     */
+    public CompletableFuture <Integer> read (int address, int register)
+    {
+        return submit (() -> device (address).read (register));
+    }
+
+    /**
+     * Queue a read of several bytes starting at a register.
+     *
+     * @param address The device address.
+     * @param register The first register.
+     * @param size The number of bytes.
+     * @return A future for the bytes read.
+     */
+    public CompletableFuture<byte[]> read (int address, int register, int size)
+    {
+        if (size < 0)
+            throw new IllegalArgumentException ("Invalid read size " + size);
+
+        return submit (() ->
+        {
+            final byte[] data = new byte[size];
+            final int got = device (address).read (register, data, 0, size);
+
+            if (got != size)
+                throw new IOException ("Short read of " + got + " bytes from 0x" + Integer.toHexString (address));
+
+            return data;
+        });
+    }
+
+    /**
+     * Wait for a future from this executor and turn any failure back into
+     * the exception the operation threw.
+     *
+     * @param <T> The type of the result.
+     * @param f The future.
+     * @return The result.
+     *
+     * @throws IOException If the operation failed or we were interrupted.
+     */
+    public static <T> T await (CompletableFuture <T> f) throws IOException
+    {
+        try
+        {
+            return f.get ();
+        }
+
+        catch (InterruptedException e)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new IOException ("Interrupted waiting for the bus", e);
+        }
+
+        catch (ExecutionException e)
+        {
+            final Throwable cause = e.getCause ();
+
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+
+            if (cause instanceof Error)
+                throw (Error) cause;
+
+            throw new IOException (cause);
+        }
+    }
+
+    /**
+     * Return the number of requests performed on the bus.
+     *
+     * @return The number of requests.
+     */
+    public long getPerformed ()
+    {
+        return performed.get ();
+    }
+
+    /**
+     * Return the number of writes skipped because a later one replaced them.
+     *
+     * @return The number of writes coalesced.
+     */
+    public long getCoalesced ()
+    {
+        return coalesced.get ();
+    }
+
+    /**
+     * Stop the thread. Requests already queued are done first and anything
+     * queued afterwards fails.
+     */
+    @Override
+    public void close ()
+    {
+        closed = true;
+        LockSupport.unpark (thread);
+    }
+
+    /**
+     * Return a summary of the statistics.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString ()
+    {
+        return "BusExecutor i2c-" + bus.getBusNumber () + ": " + performed.get () + " performed, " + coalesced.get () + " coalesced";
+    }
+
+    /**
+     * Add a request to the queue and wake the thread.
+     *
+     * @param r The request.
+     */
+    private void enqueue (Request r)
+    {
+        if (closed)
+        {
+            r.result.completeExceptionally (new IOException ("BusExecutor closed"));
+            return;
+        }
+
+        queue.offer (r);
+
+        // If we were closed while adding it the thread may already have
+        // done its final sweep, so make sure it isn't left there for ever.
+        if (closed && queue.remove (r))
+        {
+            r.result.completeExceptionally (new IOException ("BusExecutor closed"));
+            return;
+        }
+
+        LockSupport.unpark (thread);
+    }
+
+    /**
+     * The bus thread. It takes requests off the queue in order, skipping
+     * writes that the next one replaces, and parks when there's nothing to
+     * do.
+     */
+    private void run ()
+    {
+        while (true)
+        {
+            Request r = queue.poll ();
+
+            if (r == null)
+            {
+                if (closed)
+                    break;
+
+                LockSupport.park (this);
+                continue;
+            }
+
+            // See if the next request makes this one pointless. We're the
+            // only consumer so what we peek is what we'll poll.
+            Request next;
+
+            while (r.isWrite () && (next = queue.peek ()) != null && next.replaces (r))
+            {
+                queue.poll ();
+                next.chain (r);
+                coalesced.incrementAndGet ();
+                r = next;
+            }
+
+            r.perform ();
+            performed.incrementAndGet ();
+        }
+
+        // Anything that sneaked in while closing.
+        Request r;
+
+        while ((r = queue.poll ()) != null)
+            r.result.completeExceptionally (new IOException ("BusExecutor closed"));
+    }
+
+    /**
+     * Return the real device at an address, opening it if needed. Only
+     * called on the bus thread.
+     *
+     * @param address The address.
+     * @return The device.
+     *
+     * @throws IOException In case of trouble.
+     */
+    private I2CDevice device (int address) throws IOException
+    {
+        I2CDevice d = devices.get (address);
+
+        if (d == null)
+        {
+            d = bus.getDevice (address);
+            devices.put (address, d);
+        }
+
+        return d;
+    }
+
+    /**
+     * Invoke a method on something from the bus thread and wait for the
+     * result.
+     *
+     * @param target What to invoke it on.
+     * @param method The method.
+     * @param args The arguments.
+     * @return The result.
+     *
+     * @throws Throwable Whatever the method threw.
+     */
+    private Object forward (Operation <Object> target, Method method, Object[] args) throws Throwable
+    {
+        // Already on the bus thread, so just do it.
+        if (Thread.currentThread () == thread)
+        {
+            try
+            {
+                return method.invoke (target.perform (), args);
+            }
+
+            catch (InvocationTargetException e)
+            {
+                throw e.getCause ();
+            }
+        }
+
+        return await (submit (() ->
+        {
+            try
+            {
+                return method.invoke (target.perform (), args);
+            }
+
+            catch (IllegalAccessException e)
+            {
+                throw new IOException (e);
+            }
+
+            catch (InvocationTargetException e)
+            {
+                final Throwable cause = e.getCause ();
+
+                if (cause instanceof IOException)
+                    throw (IOException) cause;
+
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+
+                if (cause instanceof Error)
+                    throw (Error) cause;
+
+                throw new IOException (cause);
+            }
+        }));
+    }
+
+    /**
+     * A request in the queue. It's either a register write, which can be
+     * coalesced, or an operation, which can't.
+     */
+    private class Request
+    {
+        /**
+         * Create a request.
+         *
+         * @param address The device address for a write.
+         * @param register The register for a write.
+         * @param data The data for a write or null.
+         * @param result The future to complete.
+         * @param op The operation if it's not a write.
+         */
+        @SuppressWarnings ("unchecked")
+        Request (int address, int register, byte[] data, CompletableFuture <?> result, Operation <?> op)
+        {
+            this.address = address;
+            this.register = register;
+            this.data = data;
+            this.result = (CompletableFuture <Object>) result;
+            this.op = op;
+        }
+
+        /**
+         * Is this a register write?
+         *
+         * @return If it is.
+         */
+        boolean isWrite ()
+        {
+            return data != null;
+        }
+
+        /**
+         * Does this request overwrite everything an earlier one writes?
+         *
+         * @param earlier The earlier request.
+         * @return If it does.
+         */
+        boolean replaces (Request earlier)
+        {
+            return isWrite () && address == earlier.address && register == earlier.register && data.length >= earlier.data.length;
+        }
+
+        /**
+         * Complete an earlier, skipped, request when this one completes.
+         *
+         * @param earlier The earlier request.
+         */
+        void chain (Request earlier)
+        {
+            if (chained == null)
+                chained = new ArrayList <> ();
+
+            chained.add (earlier.result);
+
+            if (earlier.chained != null)
+                chained.addAll (earlier.chained);
+        }
+
+        /**
+         * Do the request and complete its future, and those of any requests
+         * it replaced.
+         */
+        void perform ()
+        {
+            Object value = null;
+            Throwable failure = null;
+
+            try
+            {
+                if (isWrite ())
+                    device (address).write (register, data, 0, data.length);
+                else
+                    value = op.perform ();
+            }
+
+            catch (IOException | RuntimeException e)
+            {
+                failure = e;
+            }
+
+            catch (Error e)
+            {
+                LOG.log (Level.SEVERE, "Error on I2C bus thread", e);
+                failure = e;
+            }
+
+            complete (result, value, failure);
+
+            if (chained != null)
+                for (CompletableFuture <Object> f : chained)
+                    complete (f, null, failure);
+        }
+
+        /**
+         * Complete a future one way or the other.
+         *
+         * @param f The future.
+         * @param value The value if it worked.
+         * @param failure What went wrong or null.
+         */
+        private void complete (CompletableFuture <Object> f, Object value, Throwable failure)
+        {
+            if (failure == null)
+                f.complete (value);
+            else
+                f.completeExceptionally (failure);
+        }
+
+        /** The device address for a write. */
+        final int address;
+        /** The register for a write. */
+        final int register;
+        /** The data for a write or null if it's an operation. */
+        final byte[] data;
+        /** The future to complete. */
+        final CompletableFuture <Object> result;
+        /** The operation if it's not a write. */
+        final Operation <?> op;
+        /** The futures of writes this one replaced, or null. */
+        List <CompletableFuture <Object>> chained = null;
+    }
+
+    /**
+     * This puts the calls on the wrapped bus through the executor.
+     */
+    private class BusHandler implements InvocationHandler
+    {
+        @Override
+        public Object invoke (Object proxy, Method method, Object[] args) throws Throwable
+        {
+            switch (method.getName ())
+            {
+                case "getDevice":
+                    if (args != null && args.length == 1 && args[0] instanceof Integer)
+                        return wrap ((Integer) args[0]);
+                    break;
+
+                case "getBusNumber":
+                    return bus.getBusNumber ();
+
+                case "toString":
+                    return "Executor for I2C bus " + bus.getBusNumber ();
+
+                case "hashCode":
+                    return System.identityHashCode (proxy);
+
+                case "equals":
+                    return proxy == args[0];
+
+                default:
+                    break;
+            }
+
+            return forward (() -> bus, method, args);
+        }
+
+        /**
+         * Return the wrapped device for an address, creating it if needed.
+         *
+         * @param address The address.
+         * @return The device.
+         */
+        private synchronized I2CDevice wrap (int address)
+        {
+            I2CDevice d = wrapped_devices.get (address);
+
+            if (d == null)
+            {
+                d = (I2CDevice) Proxy.newProxyInstance (I2CDevice.class.getClassLoader (),
+                        new Class <?>[] { I2CDevice.class }, new DeviceHandler (address));
+                wrapped_devices.put (address, d);
+            }
+
+            return d;
+        }
+
+        /** The wrapped devices we've handed out. */
+        private final Map <Integer, I2CDevice> wrapped_devices = new HashMap <> ();
+    }
+
+    /**
+     * This puts the calls on a wrapped device through the executor. Register
+     * writes go through the coalescing path, everything else is forwarded
+     * as is.
+     */
+    private class DeviceHandler implements InvocationHandler
+    {
+        /**
+         * Create the handler for a device.
+         *
+         * @param address The device address.
+         */
+        DeviceHandler (int address)
+        {
+            ADDRESS = address;
+        }
+
+        @Override
+        public Object invoke (Object proxy, Method method, Object[] args) throws Throwable
+        {
+            final Class <?>[] types = method.getParameterTypes ();
+
+            switch (method.getName ())
+            {
+                case "getAddress":
+                    return ADDRESS;
+
+                case "write":
+                    if (types.length >= 2 && Thread.currentThread () != thread && types[0] == int.class)
+                    {
+                        final int register = (Integer) args[0];
+
+                        if (types.length == 2 && types[1] == byte.class)
+                            return await (write (ADDRESS, register, (Byte) args[1]));
+
+                        if (types.length == 2 && types[1] == byte[].class)
+                        {
+                            final byte[] data = (byte[]) args[1];
+
+                            return await (write (ADDRESS, register, data, 0, data.length));
+                        }
+
+                        if (types.length == 4 && types[1] == byte[].class)
+                            return await (write (ADDRESS, register, (byte[]) args[1], (Integer) args[2], (Integer) args[3]));
+                    }
+                    break;
+
+                case "toString":
+                    return "I2C device 0x" + Integer.toHexString (ADDRESS) + " on executor for bus " + bus.getBusNumber ();
+
+                case "hashCode":
+                    return System.identityHashCode (proxy);
+
+                case "equals":
+                    return proxy == args[0];
+
+                default:
+                    break;
+            }
+
+            return forward (() -> device (ADDRESS), method, args);
+        }
+
+        /** The device address. */
+        private final int ADDRESS;
+    }
+
+    /** The bus we own. */
+    private final I2CBus bus;
+    /** The bus we hand out. */
+    private final I2CBus wrapped;
+    /** The thread that does all the work. */
+    private final Thread thread;
+    /** The requests waiting to be done. */
+    private final ConcurrentLinkedQueue <Request> queue = new ConcurrentLinkedQueue <> ();
+    /** The real devices we've opened, only touched on the bus thread. */
+    private final Map <Integer, I2CDevice> devices = new HashMap <> ();
+    /** The number of requests performed. */
+    private final AtomicLong performed = new AtomicLong ();
+    /** The number of writes coalesced. */
+    private final AtomicLong coalesced = new AtomicLong ();
+    /** Have we been closed? */
+    private volatile boolean closed = false;
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getLogger (BusExecutor.class.getName ());
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+import com.pi4j.io.i2c.I2CBus;
+import com.pi4j.io.i2c.I2CDevice;
+import com.pi4j.io.spi.SpiChannel;
+import com.pi4j.io.spi.SpiDevice;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class collects metrics on bus traffic for each bus and device
+ * address. The I2C buses and SPI devices the drivers use are wrapped so that
+ * every call is timed and counted on the way through; the drivers themselves
+ * don't change. Each device's metrics are also registered with the platform
+ * MBean server under Jimbo.Devices:type=BusMetrics.
+ * <p>
+ * To see what a frame costs take the transaction count before and after a
+ * show, or just log report () now and then.
+ *
+ * @author Jim Darby
+ */
+public class BusMetrics
+{
+    /**
+     * Wrap an I2C bus so that all the devices it hands out are measured.
+     *
+     * @param bus The bus.
+     * @return The measured bus.
+     */
+    public static I2CBus wrap (I2CBus bus)
+    {
+        final String name = "i2c-" + bus.getBusNumber ();
+
+        return (I2CBus) Proxy.newProxyInstance (I2CBus.class.getClassLoader (), new Class <?>[] { I2CBus.class },
+                (proxy, method, args) ->
+                {
+                    final Object result = invoke (bus, method, args);
+
+                    if (result instanceof I2CDevice && method.getName ().equals ("getDevice"))
+                        return wrap ((I2CDevice) result, name);
+
+                    return result;
+                });
+    }
+
+    /**
+     * Wrap a single I2C device so that it's measured.
+     *
+     * @param device The device.
+     * @param bus The name of the bus it's on.
+     * @return The measured device.
+     */
+    public static I2CDevice wrap (I2CDevice device, String bus)
+    {
+        return (I2CDevice) Proxy.newProxyInstance (I2CDevice.class.getClassLoader (), new Class <?>[] { I2CDevice.class },
+                new Measured (device, get (bus, device.getAddress ()), true));
+    }
+
+    /**
+     * Wrap an SPI device so that it's measured.
+     *
+     * @param device The device.
+     * @param bus The number of the SPI bus it's on.
+     * @param channel The chip select it's on, which is used as its address.
+     * @return The measured device.
+     */
+    public static SpiDevice wrap (SpiDevice device, int bus, SpiChannel channel)
+    {
+        if (bus < 0)
+            throw new IllegalArgumentException ("Invalid SPI bus " + bus);
+
+        return (SpiDevice) Proxy.newProxyInstance (SpiDevice.class.getClassLoader (), new Class <?>[] { SpiDevice.class },
+                new Measured (device, get (bus, channel), false));
+    }
+
+    /**
+     * Find the metrics for a device, creating and registering them if this
+     * is the first time it's been seen.
+     *
+     * @param bus The bus name.
+     * @param address The device address.
+     * @return The metrics.
+     */
+    public static DeviceMetrics get (String bus, int address)
+    {
+        return metrics.computeIfAbsent (bus + '/' + address, k -> register (new DeviceMetrics (bus, address)));
+    }
+
+    /**
+     * Find the metrics for a device on an I2C bus.
+     *
+     * @param bus The bus.
+     * @param address The device address.
+     * @return The metrics.
+     */
+    public static DeviceMetrics get (I2CBus bus, int address)
+    {
+        return get ("i2c-" + bus.getBusNumber (), address);
+    }
+
+    /**
+     * Find the metrics for a device on an SPI bus.
+     *
+     * @param bus The number of the SPI bus.
+     * @param channel The chip select it's on, which is used as its address.
+     * @return The metrics.
+     */
+    public static DeviceMetrics get (int bus, SpiChannel channel)
+    {
+        return get ("spi-" + bus, channel.getChannel ());
+    }
+
+    /**
+     * Return the metrics for every device seen so far.
+     *
+     * @return The metrics.
+     */
+    public static Collection <DeviceMetrics> getAll ()
+    {
+        final List <DeviceMetrics> result = new ArrayList <> (metrics.values ());
+
+        result.sort ((a, b) -> a.getBus ().equals (b.getBus ()) ?
+                Integer.compare (a.getAddress (), b.getAddress ()) : a.getBus ().compareTo (b.getBus ()));
+
+        return result;
+    }
+
+    /**
+     * Reset the metrics for every device.
+     */
+    public static void reset ()
+    {
+        for (DeviceMetrics m : metrics.values ())
+            m.reset ();
+    }
+
+    /**
+     * Return a summary of every device, one per line.
+     *
+     * @return The report.
+     */
+    public static String report ()
+    {
+        final StringBuilder result = new StringBuilder ();
+
+        for (DeviceMetrics m : getAll ())
+            result.append (m).append ('\n');
+
+        return result.toString ();
+    }
+
+    /**
+     * Register some metrics with the platform MBean server. Failing to do so
+     * isn't fatal, the metrics just aren't visible that way.
+     *
+     * @param m The metrics.
+     * @return The metrics.
+     */
+    private static DeviceMetrics register (DeviceMetrics m)
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer ().registerMBean (m,
+                    new ObjectName ("Jimbo.Devices:type=BusMetrics,bus=" + m.getBus () +
+                            ",address=0x" + Integer.toHexString (m.getAddress ())));
+        }
+
+        catch (JMException | RuntimeException e)
+        {
+            LOG.log (Level.WARNING, "Unable to register bus metrics: {0}", e.getLocalizedMessage ());
+        }
+
+        return m;
+    }
+
+    /**
+     * Invoke a method and pass on whatever it throws unwrapped.
+     *
+     * @param target What to invoke it on.
+     * @param method The method.
+     * @param args The arguments.
+     * @return The result.
+     *
+     * @throws Throwable Whatever the method threw.
+     */
+    private static Object invoke (Object target, Method method, Object[] args) throws Throwable
+    {
+        try
+        {
+            return method.invoke (target, args);
+        }
+
+        catch (InvocationTargetException e)
+        {
+            throw e.getCause ();
+        }
+    }
+
+    /**
+     * This times and counts the calls on a device. What's a transaction and
+     * how many bytes it moves is worked out from the arguments of the
+     * pi4j methods.
+     */
+    private static class Measured implements InvocationHandler
+    {
+        /**
+         * Measure a device.
+         *
+         * @param device The device.
+         * @param metrics Where to record things.
+         * @param i2c True for I2C, false for SPI.
+         */
+        Measured (Object device, DeviceMetrics metrics, boolean i2c)
+        {
+            DEVICE = device;
+            METRICS = metrics;
+            I2C = i2c;
+        }
+
+        @Override
+        public Object invoke (Object proxy, Method method, Object[] args) throws Throwable
+        {
+            final String name = method.getName ();
+            final boolean read = name.equals ("read");
+
+            if (!read && !name.equals ("write"))
+                return BusMetrics.invoke (DEVICE, method, args);
+
+            final long start = System.nanoTime ();
+            final Object result;
+
+            try
+            {
+                result = BusMetrics.invoke (DEVICE, method, args);
+            }
+
+            catch (IOException | RuntimeException e)
+            {
+                METRICS.recordError (System.nanoTime () - start);
+                throw e;
+            }
+
+            final long nanos = System.nanoTime () - start;
+
+            if (!I2C)
+            {
+                // SPI is full duplex so every byte out is a byte in, but the
+                // drivers only ever send so it counts as a write.
+                final int n = (result instanceof byte[]) ? ((byte[]) result).length : size (args, 0);
+
+                METRICS.recordWrite (n, n, nanos);
+                return result;
+            }
+
+            final Class <?>[] types = method.getParameterTypes ();
+            final int count = (args == null) ? 0 : args.length;
+
+            if (!read)
+            {
+                // write (byte), write (byte[]...), write (int, ...): the
+                // register address counts as a byte on the wire.
+                final boolean register = count > 0 && types[0] == int.class;
+
+                METRICS.recordWrite ((register ? 1 : 0) + size (args, register ? 1 : 0), 0, nanos);
+            }
+            else
+            {
+                final int got = (result instanceof Integer) ? (Integer) result : 0;
+
+                if (count == 0)
+                    METRICS.recordRead (0, 1, nanos);
+                else if (count == 1)
+                    METRICS.recordRead (1, 1, nanos);
+                else if (count == 4)
+                    METRICS.recordRead (1, got, nanos);
+                else if (count == 6)
+                    METRICS.recordRead ((Integer) args[2], got, nanos);
+                else
+                    METRICS.recordRead (0, got, nanos);
+            }
+
+            return result;
+        }
+
+        /**
+         * Work out how many bytes an argument list sends starting at a given
+         * argument: a byte, a whole array or an array, offset and size.
+         *
+         * @param args The arguments.
+         * @param from The first argument to look at.
+         * @return The number of bytes.
+         */
+        private static int size (Object[] args, int from)
+        {
+            if (args == null || from >= args.length)
+                return 0;
+
+            final Object a = args[from];
+
+            if (a instanceof Byte)
+                return 1;
+
+            if (from + 2 < args.length && args[from + 2] instanceof Integer)
+                return (Integer) args[from + 2];
+
+            if (a instanceof byte[])
+                return ((byte[]) a).length;
+
+            if (a instanceof short[])
+                return ((short[]) a).length;
+
+            return 0;
+        }
+
+        /** The device being measured. */
+        private final Object DEVICE;
+        /** Where the metrics go. */
+        private final DeviceMetrics METRICS;
+        /** Is it I2C? */
+        private final boolean I2C;
+    }
+
+    /** The metrics by bus and address. */
+    private static final ConcurrentHashMap <String, DeviceMetrics> metrics = new ConcurrentHashMap <> ();
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getLogger (BusMetrics.class.getName ());
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class holds the bus metrics for a single device: how many
+ * transactions, how many bytes each way, retries, errors and how long the
+ * transactions took. Times go into a histogram with power of two buckets so
+ * recording one is just a couple of additions and nothing is allocated.
+ * Everything can be updated from any thread.
+ *
+ * @author Jim Darby
+ */
+public class DeviceMetrics implements DeviceMetricsMXBean
+{
+    /**
+     * Create the metrics for a device. Use BusMetrics.get to find or create
+     * them.
+     *
+     * @param bus The bus name.
+     * @param address The device address.
+     */
+    DeviceMetrics (String bus, int address)
+    {
+        BUS = bus;
+        ADDRESS = address;
+    }
+
+    /**
+     * Record a successful transaction that only wrote. On a full duplex bus
+     * like SPI bytes still come back, and they're counted, but it's the
+     * caller that says what kind of transaction it was.
+     *
+     * @param written The number of bytes written.
+     * @param read The number of bytes that came back.
+     * @param nanos How long it took in nanoseconds.
+     */
+    public void recordWrite (int written, int read, long nanos)
+    {
+        writes.increment ();
+        record (written, read, nanos);
+    }
+
+    /**
+     * Record a successful transaction that read, even if nothing came back.
+     *
+     * @param written The number of bytes written, such as a register address.
+     * @param read The number of bytes read.
+     * @param nanos How long it took in nanoseconds.
+     */
+    public void recordRead (int written, int read, long nanos)
+    {
+        reads.increment ();
+        record (written, read, nanos);
+    }
+
+    /**
+     * Count a successful transaction of either kind.
+     *
+     * @param written The number of bytes written.
+     * @param read The number of bytes read.
+     * @param nanos How long it took in nanoseconds.
+     */
+    private void record (int written, int read, long nanos)
+    {
+        transactions.increment ();
+        bytes_written.add (written);
+        bytes_read.add (read);
+        time (nanos);
+    }
+
+    /**
+     * Record a failed transaction.
+     *
+     * @param nanos How long it took to fail in nanoseconds.
+     */
+    public void recordError (long nanos)
+    {
+        transactions.increment ();
+        errors.increment ();
+        time (nanos);
+    }
+
+    /**
+     * Record that a driver retried a transaction.
+     *
+     * @param n The number of retries.
+     */
+    public void recordRetries (int n)
+    {
+        retries.add (n);
+    }
+
+    @Override
+    public String getBus ()
+    {
+        return BUS;
+    }
+
+    @Override
+    public int getAddress ()
+    {
+        return ADDRESS;
+    }
+
+    @Override
+    public long getTransactions ()
+    {
+        return transactions.sum ();
+    }
+
+    @Override
+    public long getWrites ()
+    {
+        return writes.sum ();
+    }
+
+    @Override
+    public long getReads ()
+    {
+        return reads.sum ();
+    }
+
+    @Override
+    public long getBytesWritten ()
+    {
+        return bytes_written.sum ();
+    }
+
+    @Override
+    public long getBytesRead ()
+    {
+        return bytes_read.sum ();
+    }
+
+    @Override
+    public long getRetries ()
+    {
+        return retries.sum ();
+    }
+
+    @Override
+    public long getErrors ()
+    {
+        return errors.sum ();
+    }
+
+    @Override
+    public double getMeanLatency ()
+    {
+        final long n = transactions.sum ();
+
+        return (n > 0) ? total_nanos.sum () / 1000.0 / n : 0;
+    }
+
+    @Override
+    public double getMaxLatency ()
+    {
+        return max_nanos.get () / 1000.0;
+    }
+
+    @Override
+    public double getMedianLatency ()
+    {
+        return getLatencyPercentile (50);
+    }
+
+    @Override
+    public double getP99Latency ()
+    {
+        return getLatencyPercentile (99);
+    }
+
+    /**
+     * Return a percentile of the transaction time. As the histogram buckets
+     * are powers of two this is the top of the bucket it falls in, so it's
+     * never an underestimate by more than a factor of two.
+     *
+     * @param p The percentile, 0 to 100.
+     * @return The time in microseconds.
+     */
+    public double getLatencyPercentile (double p)
+    {
+        if (p < 0 || p > 100)
+            throw new IllegalArgumentException ("Invalid percentile " + p);
+
+        final long[] h = getLatencyHistogram ();
+        long total = 0;
+
+        for (long n : h)
+            total += n;
+
+        if (total == 0)
+            return 0;
+
+        final long want = Math.max (1, (long) Math.ceil (total * p / 100));
+        long seen = 0;
+
+        for (int i = 0; i < h.length; ++i)
+        {
+            seen += h[i];
+
+            if (seen >= want)
+                return Math.scalb (1.0, i + 1) / 1000;
+        }
+
+        return getMaxLatency ();
+    }
+
+    @Override
+    public long[] getLatencyHistogram ()
+    {
+        final long[] result = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; ++i)
+            result[i] = histogram.get (i);
+
+        return result;
+    }
+
+    @Override
+    public void reset ()
+    {
+        transactions.reset ();
+        writes.reset ();
+        reads.reset ();
+        bytes_written.reset ();
+        bytes_read.reset ();
+        retries.reset ();
+        errors.reset ();
+        total_nanos.reset ();
+        max_nanos.reset ();
+
+        for (int i = 0; i < BUCKETS; ++i)
+            histogram.set (i, 0);
+    }
+
+    /**
+     * Return a summary of the metrics.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format ("%s 0x%02x: %d transactions (%d writes, %d reads), %d bytes out, %d in, %d retries, %d errors, latency mean %.1f us p50 %.0f us p99 %.0f us max %.1f us",
+                BUS, ADDRESS, getTransactions (), getWrites (), getReads (), getBytesWritten (), getBytesRead (),
+                getRetries (), getErrors (), getMeanLatency (), getMedianLatency (), getP99Latency (), getMaxLatency ());
+    }
+
+    /**
+     * Add a transaction time to the totals and histogram.
+     *
+     * @param nanos The time in nanoseconds.
+     */
+    private void time (long nanos)
+    {
+        if (nanos < 1)
+            nanos = 1;
+
+        total_nanos.add (nanos);
+        max_nanos.accumulate (nanos);
+        histogram.incrementAndGet (63 - Long.numberOfLeadingZeros (nanos));
+    }
+
+    /** The bus name. */
+    private final String BUS;
+    /** The device address. */
+    private final int ADDRESS;
+    /** The number of transactions. */
+    private final LongAdder transactions = new LongAdder ();
+    /** The number of write only transactions. */
+    private final LongAdder writes = new LongAdder ();
+    /** The number of transactions that read. */
+    private final LongAdder reads = new LongAdder ();
+    /** The bytes written. */
+    private final LongAdder bytes_written = new LongAdder ();
+    /** The bytes read. */
+    private final LongAdder bytes_read = new LongAdder ();
+    /** The number of retries. */
+    private final LongAdder retries = new LongAdder ();
+    /** The number of failed transactions. */
+    private final LongAdder errors = new LongAdder ();
+    /** The total time in nanoseconds. */
+    private final LongAdder total_nanos = new LongAdder ();
+    /** The longest time in nanoseconds. */
+    private final LongAccumulator max_nanos = new LongAccumulator (Math::max, 0);
+    /** The histogram. Bucket n is from 2^n to 2^(n+1) nanoseconds. */
+    private final AtomicLongArray histogram = new AtomicLongArray (BUCKETS);
+
+    /** The number of histogram buckets, enough for any long. */
+    private static final int BUCKETS = 64;
+}
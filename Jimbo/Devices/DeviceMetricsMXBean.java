@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+/**
+ * This is the management view of the bus metrics for a single device. It's
+ * registered with the platform MBean server so the numbers can be watched
+ * with jconsole or anything else that talks JMX.
+ *
+ * @author Jim Darby
+ */
+public interface DeviceMetricsMXBean
+{
+    /**
+     * Return the name of the bus, such as i2c-1 or spi-0.
+     *
+     * @return The bus name.
+     */
+    String getBus ();
+
+    /**
+     * Return the address of the device on the bus. For SPI this is the chip
+     * select.
+     *
+     * @return The address.
+     */
+    int getAddress ();
+
+    /**
+     * Return the number of transactions, successful or not.
+     *
+     * @return The number of transactions.
+     */
+    long getTransactions ();
+
+    /**
+     * Return the number of transactions that only wrote.
+     *
+     * @return The number of writes.
+     */
+    long getWrites ();
+
+    /**
+     * Return the number of transactions that read.
+     *
+     * @return The number of reads.
+     */
+    long getReads ();
+
+    /**
+     * Return the number of bytes sent to the device, including register
+     * addresses.
+     *
+     * @return The number of bytes written.
+     */
+    long getBytesWritten ();
+
+    /**
+     * Return the number of bytes received from the device.
+     *
+     * @return The number of bytes read.
+     */
+    long getBytesRead ();
+
+    /**
+     * Return the number of times a driver retried a failed transaction.
+     *
+     * @return The number of retries.
+     */
+    long getRetries ();
+
+    /**
+     * Return the number of transactions that failed.
+     *
+     * @return The number of errors.
+     */
+    long getErrors ();
+
+    /**
+     * Return the mean transaction time.
+     *
+     * @return The mean in microseconds.
+     */
+    double getMeanLatency ();
+
+    /**
+     * Return the longest transaction time.
+     *
+     * @return The maximum in microseconds.
+     */
+    double getMaxLatency ();
+
+    /**
+     * Return the median transaction time, to within a factor of two.
+     *
+     * @return The median in microseconds.
+     */
+    double getMedianLatency ();
+
+    /**
+     * Return the 99th percentile transaction time, to within a factor of
+     * two.
+     *
+     * @return The 99th percentile in microseconds.
+     */
+    double getP99Latency ();
+
+    /**
+     * Return the latency histogram. Entry n counts the transactions that
+     * took from 2^n up to 2^(n+1) nanoseconds.
+     *
+     * @return The histogram.
+     */
+    long[] getLatencyHistogram ();
+
+    /**
+     * Set all the counts back to zero.
+     */
+    void reset ();
+}
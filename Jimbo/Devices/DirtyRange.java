@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+/**
+ * This class keeps track of which part of a device's buffer has changed since
+ * it was last sent. It holds a single range from the lowest to the highest
+ * changed index, which suits devices with auto-incrementing registers where
+ * one write of the span is cheaper than several small ones.
+ *
+ * @author Jim Darby
+ */
+public class DirtyRange
+{
+    /**
+     * Create a range tracker for a buffer of a given size. It starts clean.
+     *
+     * @param size The size of the buffer being tracked.
+     */
+    public DirtyRange (int size)
+    {
+        if (size < 1)
+            throw new IllegalArgumentException ("Invalid DirtyRange size " + size);
+
+        this.size = size;
+        clear ();
+    }
+
+    /**
+     * Mark a single index as changed.
+     *
+     * @param index The index that changed.
+     */
+    public void mark (int index)
+    {
+        if (index < 0 || index >= size)
+            throw new IllegalArgumentException ("Invalid dirty index " + index);
+
+        if (index < low)
+            low = index;
+
+        if (index > high)
+            high = index;
+    }
+
+    /**
+     * Mark a span of indices as changed.
+     *
+     * @param from The first index that changed.
+     * @param length The number of indices that changed.
+     */
+    public void mark (int from, int length)
+    {
+        if (length <= 0)
+            return;
+
+        mark (from);
+        mark (from + length - 1);
+    }
+
+    /**
+     * Mark the whole buffer as changed. This is used to force everything out
+     * next time, for example at start up.
+     */
+    public void markAll ()
+    {
+        low = 0;
+        high = size - 1;
+    }
+
+    /**
+     * Has anything changed?
+     *
+     * @return True if there's something to send.
+     */
+    public boolean isDirty ()
+    {
+        return high >= low;
+    }
+
+    /**
+     * Return the lowest index that has changed. Only meaningful if isDirty
+     * is true.
+     *
+     * @return The lowest changed index.
+     */
+    public int getLow ()
+    {
+        return low;
+    }
+
+    /**
+     * Return the highest index that has changed. Only meaningful if isDirty
+     * is true.
+     *
+     * @return The highest changed index.
+     */
+    public int getHigh ()
+    {
+        return high;
+    }
+
+    /**
+     * Return the number of indices from the lowest to the highest changed
+     * one inclusive. It is zero if nothing has changed.
+     *
+     * @return The length of the changed span.
+     */
+    public int getLength ()
+    {
+        return isDirty () ? high - low + 1 : 0;
+    }
+
+    /**
+     * Mark everything as clean. Called once the changes have been sent.
+     */
+    public void clear ()
+    {
+        low = size;
+        high = -1;
+    }
+
+    /**
+     * Return a printable version of the range.
+     *
+     * @return A printable String.
+     */
+    @Override
+    public String toString ()
+    {
+        return isDirty () ? "Dirty " + low + " to " + high : "Clean";
+    }
+
+    /** The size of the buffer. */
+    private final int size;
+    /** The lowest changed index. */
+    private int low;
+    /** The highest changed index. */
+    private int high;
+}
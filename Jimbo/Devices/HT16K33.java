@@ -24,6 +24,8 @@ import com.pi4j.io.i2c.I2CBus;
 import com.pi4j.io.i2c.I2CDevice;
 import com.pi4j.io.i2c.I2CFactory;
 
+import Jimbo.Graphics.PackedBitFrame;
+
 /**
  * This class controls a HT16K33 display controller.
  * 
@@ -35,6 +37,7 @@ public class HT16K33
     {
         // Get a device object to use for communication.
         device = bus.getDevice (dev);
+        retrier = new Retrier (RetryPolicy.NONE, BusMetrics.get (bus, dev));
         
         setOscillator (true);
         setDisplay (true, DISPLAY_STEADY);
@@ -43,6 +46,7 @@ public class HT16K33
         for (int i = 0; i < buffer.length; ++i)
             buffer[i] = 0x00;
         
+        dirty.markAll ();
         update ();
     }
     
@@ -56,7 +60,7 @@ public class HT16K33
      */
     public void setOscillator (boolean on) throws IOException
     {
-        device.write ((byte) (SETUP_REG | (on ? SETUP_ON : 0)));
+        command ((byte) (SETUP_REG | (on ? SETUP_ON : 0)));
     }
     
     /**
@@ -76,7 +80,7 @@ public class HT16K33
         if (blink < 0 || blink > 3)
             throw new IllegalArgumentException ("HT16K33 invalid blink value");
         
-        device.write ((byte) (DISPLAY_REG | (blink << 1) | (on ? DISPLAY_ON : 0)));
+        command ((byte) (DISPLAY_REG | (blink << 1) | (on ? DISPLAY_ON : 0)));
     }
     
     /**
@@ -91,7 +95,7 @@ public class HT16K33
         if (level < 0 || level > 15)
             throw new IllegalArgumentException ("HT16K33 invalid brightness value");
         
-        device.write ((byte) (BRIGHTNESS_REG | level));
+        command ((byte) (BRIGHTNESS_REG | level));
     }
     
     /**
@@ -109,10 +113,7 @@ public class HT16K33
         final int index = bit / 8;
         final byte value = (byte) (1 << (bit % 8));
         
-        if (on)
-            buffer[index] |= value;
-        else
-            buffer[index] &= ~value;
+        put (index, (byte) (on ? (buffer[index] | value) : (buffer[index] & ~value)));
     }
     
     /**
@@ -126,7 +127,7 @@ public class HT16K33
         if (which < 0 || which >= buffer.length)
             throw new IllegalArgumentException ("HT16K33 invalid byte number");
         
-        buffer[which] = value;
+        put (which, value);
     }
     /**
      * Set a specific word in the buffer. The words are stored in little
@@ -141,18 +142,107 @@ public class HT16K33
         if (which < 0 || which >= buffer.length / 2)
             throw new IllegalArgumentException ("HT16K33 invalid byte number");
         
-        buffer[which*2 + 1] = (byte) (value >> 8);
-        buffer[which*2] = (byte) value;
+        put (which*2 + 1, (byte) (value >> 8));
+        put (which*2, (byte) value);
+    }
+    
+    /**
+     * Load the display memory from a PackedBitFrame. The device holds a 16
+     * bit word per row so row y of the frame becomes word y with bit x being
+     * pixel x. The frame can be up to 16 wide and 8 high; anything it doesn't
+     * cover is left alone.
+     * 
+     * @param f The frame.
+     */
+    public void setFrame (PackedBitFrame f)
+    {
+        if (f.WIDTH > 16 || f.HEIGHT > buffer.length / 2)
+            throw new IllegalArgumentException ("PackedBitFrame too big for HT16K33");
+        
+        final long[] rows = f.getRows ();
+        final int mask = (1 << f.WIDTH) - 1;
+        
+        for (int y = 0; y < f.HEIGHT; ++y)
+        {
+            final int old = (buffer[y*2] & 0xff) | ((buffer[y*2 + 1] & 0xff) << 8);
+            final int value = (old & ~mask) | ((int) rows[y] & mask);
+            
+            put (y*2, (byte) value);
+            put (y*2 + 1, (byte) (value >> 8));
+        }
     }
     
     /**
-     * Update the display.
+     * Update the display. Only the bytes that have changed since the last
+     * update are sent and if nothing has changed nothing is sent.
      * 
      * @throws IOException In case of trouble.
      */
     public void update () throws IOException
     {
-        device.write (0, buffer);
+        if (!dirty.isDirty ())
+            return;
+        
+        final int low = dirty.getLow ();
+        final int length = dirty.getLength ();
+        
+        retrier.run (() ->
+        {
+            device.write (low, buffer, low, length);
+            return null;
+        });
+        
+        dirty.clear ();
+    }
+    
+    /**
+     * Set the retry policy for writes. The default is not to retry.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
+    }
+    
+    /**
+     * Send a single byte command.
+     * 
+     * @param command The command.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    private void command (byte command) throws IOException
+    {
+        retrier.run (() ->
+        {
+            device.write (command);
+            return null;
+        });
+    }
+    
+    /**
+     * Mark the whole buffer as changed so the next update sends everything.
+     * Useful if the device may have lost its contents.
+     */
+    public void invalidate ()
+    {
+        dirty.markAll ();
+    }
+    
+    /**
+     * Put a byte into the buffer, marking it as changed only if it has.
+     * 
+     * @param index The byte to set.
+     * @param value The new value.
+     */
+    private void put (int index, byte value)
+    {
+        if (buffer[index] != value)
+        {
+            buffer[index] = value;
+            dirty.mark (index);
+        }
     }
 
 /**
@@ -190,8 +280,12 @@ public class HT16K33
 
     /** The I2C device. */
     private final I2CDevice device;
+    /** Retries writes as the policy says. */
+    private final Retrier retrier;
     /** The data buffer */
     private final byte[] buffer = new byte[16];
+    /** What has changed since the last update. */
+    private final DirtyRange dirty = new DirtyRange (buffer.length);
     
     /** Address of the setup register. */
     static private final int SETUP_REG = 0x20;
@@ -23,6 +23,7 @@ import java.io.IOException;
 import com.pi4j.io.i2c.I2CBus;
 import com.pi4j.io.i2c.I2CDevice;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -58,10 +59,7 @@ public class IS31FL3730
     public IS31FL3730 (I2CBus bus, int addr) throws IOException
     {
         device = bus.getDevice (addr);
-        
-        // Clear retry timers
-        for (int i = 0; i < MAX_TRIES; ++i)
-            tries [i] = 0;
+        retrier = new Retrier (DEFAULT_RETRY, BusMetrics.get (bus, addr));
     }
     
     /**
@@ -198,7 +196,7 @@ public class IS31FL3730
     }
     
     /**
-     * Try a bus write until it works.
+     * Try a bus write until it works, or the retry policy gives up.
      * 
      * @param reg The register to write.
      * @param value The values to write
@@ -206,40 +204,36 @@ public class IS31FL3730
      */
     private void retryWrite (int reg, byte[] value, int base, int length) throws IOException
     {
-        IOException error = null;
-               
-        for (int i = 0; i < MAX_TRIES; ++i)
+        retrier.run (() ->
         {
-            try
-            {
-                device.write (reg, value, base, length);
-                ++tries[i];
-                
-                if (i > 0)
-                    printTries ();
-                
-                error = null;
-                break;
-            }
-            
-            catch (IOException e)
-            {
-                error = e;
-            }
-            
-            try
-            {
-                Thread.sleep (1);
-            }
-            
-            catch (InterruptedException e)
-            {
-                LOG.log (Level.WARNING, "Sleep interrupted: {0}", e.getLocalizedMessage ());
-            }
-        }
+            device.write (reg, value, base, length);
+            return null;
+        });
+        
+        final int tries = retrier.getLastTries ();
         
-        if (error != null)
-            throw error;
+        if (tries > warn_tries + 1)
+            LOG.log (Level.INFO, "Write needed {0} tries", tries);
+    }
+    
+    /**
+     * Set the retry policy for writes. The default is 20 tries 1ms apart.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
+    }
+    
+    /**
+     * Return the retrier, which has the circuit breaker state.
+     * 
+     * @return The retrier.
+     */
+    public Retrier getRetrier ()
+    {
+        return retrier;
     }
 
     /**
@@ -256,45 +250,16 @@ public class IS31FL3730
         warn_tries = n;
     }
     
-    /**
-     * Print out diagnostic information in case of failure.
-     */
-    private void printTries ()
-    {
-        int total = 0;
-        int failed = 0;
-        boolean summarise = false;
-        
-        for (int i = 0; i < MAX_TRIES; ++i)
-        {
-            total += tries[i];
-        
-            if (i > 0 && tries[i] != 0)
-            {
-                failed += tries[i] * i;
-                
-                if (i > warn_tries)
-                {
-                    LOG.log (Level.INFO, "Retries {0} = {1}", new Object[]{i, tries[i]});
-                    summarise = true;
-                }
-            }
-        }
-        
-        if (summarise)
-            LOG.log (Level.INFO, "As as percentage: {0}", (((double)  failed / total)) * 100);
-    }
-    
     // Dealing with communication and communication problems
     
+    /** Retries writes and records them. */
+    private final Retrier retrier;
     /** Buffer for single byte writes. */
     private final byte[] buffer1 = new byte[1];
     /** Warn if this or more tried needed to communicate with device. */
     private int warn_tries = 4;
-    /** The maximum number of tries to send something over the bus. */
-    private static final int MAX_TRIES = 20;
-    /** Create a histogram of the number of tries;. */
-    private final int tries[] = new int[MAX_TRIES];
+    /** The default retry policy, 20 tries 1ms apart. */
+    private static final RetryPolicy DEFAULT_RETRY = RetryPolicy.fixed (20, 1, TimeUnit.MILLISECONDS);
     
     /** The default I2C address of the device. */
     private static final byte I2C_ADDR = 0x60;
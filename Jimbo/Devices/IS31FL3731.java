@@ -43,6 +43,7 @@ public class IS31FL3731
     public IS31FL3731 (I2CBus bus, int addr) throws IOException, InterruptedException
     {
         device = bus.getDevice (addr);
+        retrier = new Retrier (RetryPolicy.NONE, BusMetrics.get (bus, addr));
         
         for (int i = 0; i < NUM_FRAMES; ++i)
         {
@@ -61,9 +62,8 @@ public class IS31FL3731
             // Upload it to the device
             sendFrame (i, FRAME[i]);
             
-            // Set dirty markers
-            DIRTY_LOW[i]  = FRAME_LEN;
-            DIRTY_HIGH[i] = -1;
+            // Nothing outstanding
+            dirty[i] = new DirtyRange (FRAME_LEN);
         }
         
         // Set "sensible" defaults
@@ -104,19 +104,18 @@ public class IS31FL3731
         
         final int index = PWM_BASE + led;
         
-        FRAME[frame][index] = (byte) pwm;
+        // Only mark it if it's actually changed
         
-        // Update the dirty values
-        
-        if (index > DIRTY_HIGH[frame])
-            DIRTY_HIGH[frame] = index;
-        
-        if (index < DIRTY_LOW[frame])
-            DIRTY_LOW[frame] = index;
+        if (FRAME[frame][index] != (byte) pwm)
+        {
+            FRAME[frame][index] = (byte) pwm;
+            dirty[frame].mark (index);
+        }
     }
     
     /**
-     * Update the display.
+     * Update the display. Only the part of each frame that has changed is
+     * sent and if nothing has changed nothing is sent.
      * 
      * @throws IOException In case of trouble.
      */
@@ -124,18 +123,211 @@ public class IS31FL3731
     {
         for (int i = 0; i < NUM_FRAMES; ++i)
         {
-            if (DIRTY_HIGH[i] >= DIRTY_LOW[i])
+            final DirtyRange d = dirty[i];
+            
+            if (d.isDirty ())
             {
                 setPage (i);
                 
-                device.write(DIRTY_LOW[i], FRAME[i], DIRTY_LOW[i], DIRTY_HIGH[i] - DIRTY_LOW[i] + 1);
+                write (d.getLow (), FRAME[i], d.getLow (), d.getLength ());
                 
-                DIRTY_LOW[i]  = FRAME_LEN;
-                DIRTY_HIGH[i] = -1;
+                d.clear ();
             }
         }
     }
     
+    /**
+     * Update a single frame on the device. Only the part that has changed is
+     * sent. Use this to load a frame that isn't being displayed before
+     * flipping to it.
+     * 
+     * @param frame The frame to update.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    public void updateFrame (int frame) throws IOException
+    {
+        if (frame < 0 || frame >= NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid frame " + frame);
+        
+        final DirtyRange d = dirty[frame];
+        
+        if (d.isDirty ())
+        {
+            setPage (frame);
+            
+            write (d.getLow (), FRAME[frame], d.getLow (), d.getLength ());
+            
+            d.clear ();
+        }
+    }
+    
+    /**
+     * Display a specific frame. This is a single byte write to the picture
+     * display register so the change is atomic: the display goes from one
+     * complete frame to another with no tearing. The frame should already
+     * have been sent with update or updateFrame.
+     * 
+     * @param frame The frame to display.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    public void showFrame (int frame) throws IOException
+    {
+        if (frame < 0 || frame >= NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid frame " + frame);
+        
+        writeFunction (REG_DISPLAY, frame);
+    }
+    
+    /**
+     * Return the frame currently being displayed.
+     * 
+     * @return The frame number.
+     */
+    public int getDisplayedFrame ()
+    {
+        return FUNCTION_BUFFER[REG_DISPLAY] & DISPLAY_FRAME_MASK;
+    }
+    
+    /**
+     * Copy the contents of one frame into another. This only changes our
+     * copy; the bytes that differ are marked so the next update of the
+     * destination sends just those. It's used after a flip to bring the new
+     * hidden frame up to date with the one now being displayed.
+     * 
+     * @param from The frame to copy from.
+     * @param to The frame to copy to.
+     */
+    public void copyFrame (int from, int to)
+    {
+        if (from < 0 || from >= NUM_FRAMES || to < 0 || to >= NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid frame");
+        
+        final byte[] source = FRAME[from];
+        final byte[] dest = FRAME[to];
+        
+        for (int i = 0; i < FRAME_LEN; ++i)
+            if (dest[i] != source[i])
+            {
+                dest[i] = source[i];
+                dirty[to].mark (i);
+            }
+    }
+    
+    /**
+     * Turn all the LEDs in a frame off. Like copyFrame this only changes our
+     * copy.
+     * 
+     * @param frame The frame to clear.
+     */
+    public void clearFrame (int frame)
+    {
+        if (frame < 0 || frame >= NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid frame " + frame);
+        
+        final byte[] data = FRAME[frame];
+        
+        for (int i = PWM_BASE; i < PWM_END; ++i)
+            if (data[i] != 0)
+            {
+                data[i] = 0;
+                dirty[frame].mark (i);
+            }
+    }
+    
+    /**
+     * Start the device playing frames by itself. It steps through the frames
+     * from the first one given, wrapping round after frame 7, waiting the
+     * given delay on each. Once started it needs no traffic at all. Any
+     * outstanding changes to the frames are sent first.
+     * 
+     * @param first The first frame to play: 0 to 7.
+     * @param frames The number of frames to play: 1 to 8.
+     * @param loops The number of times to go round: 1 to 7, or 0 for ever.
+     * After the last loop the device stops on the last frame.
+     * @param delay The time to show each frame in milliseconds. The device
+     * works in units of 11ms from 11 to 704; it's rounded to the nearest.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    public void startAutoPlay (int first, int frames, int loops, int delay) throws IOException
+    {
+        if (first < 0 || first >= NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid first frame " + first);
+        
+        if (frames < 1 || frames > NUM_FRAMES)
+            throw new IllegalArgumentException ("Invalid frame count " + frames);
+        
+        if (loops < 0 || loops > MAX_LOOPS)
+            throw new IllegalArgumentException ("Invalid loop count " + loops);
+        
+        if (delay < 0)
+            throw new IllegalArgumentException ("Invalid delay " + delay);
+        
+        // The delay is in units of 11ms with 0 meaning 64 units. The frame
+        // count is three bits with 0 meaning all 8.
+        final int units = Math.max (1, Math.min (MAX_DELAY_UNITS, (delay + DELAY_UNIT / 2) / DELAY_UNIT));
+        
+        update ();
+        
+        writeFunction (REG_AP1, (loops << 4) | (frames & 0x07));
+        writeFunction (REG_AP2, units & 0x3f);
+        writeFunction (REG_CONFIG, CONFIG_AUTO_PLAY | first);
+    }
+    
+    /**
+     * Stop the device playing frames by itself and go back to displaying
+     * the frame last passed to showFrame.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    public void stopAutoPlay () throws IOException
+    {
+        writeFunction (REG_CONFIG, CONFIG_PICTURE);
+    }
+    
+    /**
+     * Is the device playing frames by itself?
+     * 
+     * @return If it is.
+     */
+    public boolean isAutoPlaying ()
+    {
+        return (FUNCTION_BUFFER[REG_CONFIG] & CONFIG_MODE_MASK) == CONFIG_AUTO_PLAY;
+    }
+    
+    /**
+     * Set up breathing. When on, the device fades each frame in and out and
+     * holds it off for a while between. The times are all powers of two so
+     * each is given as the exponent.
+     * 
+     * @param on Turn breathing on or off.
+     * @param fade_in The fade in time is 26ms * 2^fade_in: 0 to 7.
+     * @param fade_out The fade out time is 26ms * 2^fade_out: 0 to 7.
+     * @param extinguish The time off is 3.5ms * 2^extinguish: 0 to 7.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    public void setBreathing (boolean on, int fade_in, int fade_out, int extinguish) throws IOException
+    {
+        if (fade_in < 0 || fade_in > 7 || fade_out < 0 || fade_out > 7 || extinguish < 0 || extinguish > 7)
+            throw new IllegalArgumentException ("Invalid breathing times");
+        
+        writeFunction (REG_BREATH1, (fade_out << 4) | fade_in);
+        writeFunction (REG_BREATH2, (on ? BREATH_ENABLE : 0) | extinguish);
+    }
+    
+    /**
+     * Mark all the frames as changed so the next update sends everything.
+     * Useful if the device may have lost its contents.
+     */
+    public void invalidate ()
+    {
+        for (int i = 0; i < NUM_FRAMES; ++i)
+            dirty[i].markAll ();
+    }
+    
     /**
      * Send a specific frame to the device.
      * 
@@ -150,7 +342,7 @@ public class IS31FL3731
             throw new IllegalArgumentException ("Bad frame number " + frame);
         
         setPage (frame);
-        device.write (0, data);
+        write (0, data, 0, data.length);
     }
     
     /**
@@ -161,7 +353,73 @@ public class IS31FL3731
     private void sendFunction () throws IOException
     {
         setPage (FUNCTION_PAGE);
-        device.write (0, FUNCTION_BUFFER);
+        write (0, FUNCTION_BUFFER, 0, FUNCTION_BUFFER.length);
+    }
+    
+    /**
+     * Write a single function register, skipping the write if it already
+     * holds the value.
+     * 
+     * @param reg The register.
+     * @param value The value to write.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    private void writeFunction (int reg, int value) throws IOException
+    {
+        if (FUNCTION_BUFFER[reg] != (byte) value)
+        {
+            setPage (FUNCTION_PAGE);
+            write (reg, (byte) value);
+            FUNCTION_BUFFER[reg] = (byte) value;
+        }
+    }
+    
+    /**
+     * Set the retry policy for writes. The default is not to retry.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
+    }
+    
+    /**
+     * Write a block of data to the current page, retrying as the policy says.
+     * 
+     * @param reg The first register.
+     * @param data The data.
+     * @param offset Where the data starts in the array.
+     * @param length How much to send.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    private void write (int reg, byte[] data, int offset, int length) throws IOException
+    {
+        retrier.run (() ->
+        {
+            device.write (reg, data, offset, length);
+            return null;
+        });
+    }
+    
+    /**
+     * Write a single register on the current page, retrying as the policy
+     * says.
+     * 
+     * @param reg The register.
+     * @param value The value.
+     * 
+     * @throws IOException In case of trouble.
+     */
+    private void write (int reg, byte value) throws IOException
+    {
+        retrier.run (() ->
+        {
+            device.write (reg, value);
+            return null;
+        });
     }
     
     /**
@@ -178,7 +436,7 @@ public class IS31FL3731
         
         if (to != current_page)
         {
-            device.write (REG_CMD, (byte) to);
+            write (REG_CMD, (byte) to);
             current_page = to;
         }
     }
@@ -207,6 +465,8 @@ public class IS31FL3731
     
     /** Point to the device we're using. */
     private final I2CDevice device;
+    /** Retries writes as the policy says. */
+    private final Retrier retrier;
     /** Current page we're on. */
     private int current_page = -1;
     /** Two byte buffer. */
@@ -218,10 +478,8 @@ public class IS31FL3731
     private final byte FUNCTION_BUFFER[] = new byte[FUNCTION_LEN];
     /** Frame storage. */
     private final byte FRAME[][] = new byte[NUM_FRAMES][FRAME_LEN];
-    /** Dirty low marker. */
-    private final int DIRTY_LOW[] = new int[NUM_FRAMES];
-    /** Dirty high marker. */
-    private final int DIRTY_HIGH[] = new int[NUM_FRAMES];
+    /** What has changed in each frame since it was last sent. */
+    private final DirtyRange dirty[] = new DirtyRange[NUM_FRAMES];
             
     /** The command register. */
     private final static byte REG_CMD     = (byte) 0xfd;
@@ -232,7 +490,11 @@ public class IS31FL3731
     private final static int REG_CONFIG   = 0x00;
     /** The display register. */
     private final static int REG_DISPLAY  = 0x01;
+    /** The picture frame bits in the display register. */
+    private final static int DISPLAY_FRAME_MASK = 0x07;
+    /** The auto play control register (part 1). */
     private final static int REG_AP1      = 0x02;
+    /** The auto play control register (part 2). */
     private final static int REG_AP2      = 0x03;
     /** The reserved register. */
     private final static int REG_RESERVED = 0x04;
@@ -253,6 +515,21 @@ public class IS31FL3731
     /** The AGC rate register. */
     private final static int REG_AGC_RATE = 0x0c;
 
+    /** Picture mode in the configuration register. */
+    private final static int CONFIG_PICTURE = 0x00;
+    /** Auto frame play mode in the configuration register. */
+    private final static int CONFIG_AUTO_PLAY = 0x08;
+    /** The mode bits in the configuration register. */
+    private final static int CONFIG_MODE_MASK = 0x18;
+    /** The breathing enable bit in breath register 2. */
+    private final static int BREATH_ENABLE = 0x10;
+    /** The auto play frame delay unit in milliseconds. */
+    private final static int DELAY_UNIT = 11;
+    /** The longest auto play frame delay in units. */
+    private final static int MAX_DELAY_UNITS = 64;
+    /** The most auto play loops we can ask for (0 is for ever). */
+    private final static int MAX_LOOPS = 7;
+    
     /** Base of enable bits. */
     private final static int ENABLE_BASE = 0x00;
     /** End of enable bits (+ 1!). */
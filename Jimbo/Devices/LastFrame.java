@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+/**
+ * This class remembers the last frame sent to a device that can only be
+ * updated as a whole so that sending an identical frame can be skipped. The
+ * frame is compared directly against the copy of the last one, stopping at
+ * the first difference, so an unchanged frame costs a single pass and a
+ * changed one only copies from where it differs.
+ *
+ * @author Jim Darby
+ */
+public class LastFrame
+{
+    /**
+     * Keep track of frames of a given size. The first frame
+     * offered is always reported as changed.
+     *
+     * @param size The number of values in a frame.
+     */
+    public LastFrame (int size)
+    {
+        last = new int[size];
+        valid = false;
+    }
+
+    /**
+     * Check a frame against the last one sent. If it's different it is
+     * remembered as the last one sent and true is returned, the caller should
+     * then send it. If it's the same it's counted as suppressed.
+     *
+     * @param data The frame about to be sent.
+     * @return True if it needs sending.
+     */
+    public boolean changed (int[] data)
+    {
+        if (data.length != last.length)
+            throw new IllegalArgumentException ("Frame size " + data.length + " doesn't match " + last.length);
+
+        int i = 0;
+
+        if (valid)
+        {
+            while (i < data.length && data[i] == last[i])
+                ++i;
+
+            if (i == data.length)
+            {
+                ++suppressed;
+                return false;
+            }
+        }
+
+        System.arraycopy (data, i, last, i, data.length - i);
+        valid = true;
+        ++sent;
+
+        return true;
+    }
+
+    /**
+     * Forget the last frame so the next one is always sent. Useful if the
+     * device may have lost its contents.
+     */
+    public void invalidate ()
+    {
+        valid = false;
+    }
+
+    /**
+     * Return the number of frames skipped because they were the same as the
+     * last one sent.
+     *
+     * @return The number of suppressed frames.
+     */
+    public long getSuppressed ()
+    {
+        return suppressed;
+    }
+
+    /**
+     * Return the number of frames that were different and so sent.
+     *
+     * @return The number of frames sent.
+     */
+    public long getSent ()
+    {
+        return sent;
+    }
+
+    /** A copy of the last frame sent. */
+    private final int[] last;
+    /** Is the last frame valid? */
+    private boolean valid;
+    /** The number of frames suppressed. */
+    private long suppressed = 0;
+    /** The number of frames sent. */
+    private long sent = 0;
+}
@@ -24,6 +24,8 @@ import com.pi4j.io.spi.SpiChannel;
 import com.pi4j.io.spi.SpiDevice;
 import com.pi4j.io.spi.SpiFactory;
 
+import Jimbo.Graphics.PackedBitFrame;
+
 /**
  * A class to talk to the MAX7219 display multiplexor.
  * 
@@ -48,7 +50,8 @@ public class MAX7219
         this.chained = chained;
         
         // We set 10 MHz (device limit) but in practice it'll be a power of 2 so 8MHz.
-        dev = SpiFactory.getInstance (channel, 10000000, SpiDevice.DEFAULT_SPI_MODE);
+        dev = BusMetrics.wrap (SpiFactory.getInstance (channel, 10000000, SpiDevice.DEFAULT_SPI_MODE), 0, channel);
+        retrier = new Retrier (RetryPolicy.NONE, BusMetrics.get (0, channel));
         
         // Allocate the buffer
         buffer = new byte[chained * BYTES_PER_DEV];
@@ -57,6 +60,9 @@ public class MAX7219
             buffer[i] = 0;
         
         tx_buffer = new byte[2 * chained];
+        
+        // We don't know what the devices hold so the first update sends it all
+        dirty.markAll ();
     }
     
     /**
@@ -73,7 +79,7 @@ public class MAX7219
         validateDigit (digit);
         
         for (int i = 0; i < chained; ++i)
-            buffer[i * BYTES_PER_DEV + digit] = value;
+            put (i, digit, value);
     }
 
     /**
@@ -92,7 +98,27 @@ public class MAX7219
         validateDevice (device);
         validateDigit (digit);
         
-        buffer[device * BYTES_PER_DEV + digit] = value;
+        put (device, digit, value);
+    }
+    
+    /**
+     * Load the digits of all the devices from a PackedBitFrame. This is for
+     * devices driving 8x8 LED matrices. The frame is 8 pixels wide per device
+     * and 8 high. Device d shows columns 8d to 8d + 7 with bit n of digit r
+     * being pixel (8d + n, r). Each digit is a single shift of a row.
+     * 
+     * @param f The frame. It must be 8 * chained by 8.
+     */
+    public void setFrame (PackedBitFrame f)
+    {
+        if (f.WIDTH != chained * BYTES_PER_DEV || f.HEIGHT != BYTES_PER_DEV)
+            throw new IllegalArgumentException ("PackedBitFrame must be " + (chained * BYTES_PER_DEV) + 'x' + BYTES_PER_DEV);
+        
+        final long[] rows = f.getRows ();
+        
+        for (int digit = 0; digit < BYTES_PER_DEV; ++digit)
+            for (int device = 0; device < chained; ++device)
+                put (device, digit, (byte) (rows[digit] >>> (device * BYTES_PER_DEV)));
     }
     
     /**
@@ -262,13 +288,19 @@ public class MAX7219
     
     /**
      * Send all the display information to the device. This is done in one go to
-     * avoid excessive use of the bus on update of each digit.
+     * avoid excessive use of the bus on update of each digit. Each digit goes
+     * to every device in the chain in one transfer so only the span of digits
+     * that has changed on any device is sent. If nothing has changed nothing
+     * is sent.
      * 
      * @throws IOException In case of problems.
      */
     public void update () throws IOException
     {
-        for (int digit = 0; digit < BYTES_PER_DEV; ++digit)
+        if (!dirty.isDirty ())
+            return;
+        
+        for (int digit = dirty.getLow (); digit <= dirty.getHigh (); ++digit)
         {
             for (int device = 0; device < chained; ++device)
             {
@@ -277,7 +309,7 @@ public class MAX7219
                 tx_buffer[base + 1] = buffer[device * BYTES_PER_DEV + digit];
             }
             
-            dev.write (tx_buffer, 0, tx_buffer.length);
+            send ();
             
             /*System.out.print ("Buffer");
             
@@ -286,6 +318,36 @@ public class MAX7219
             
             System.out.println ();*/
         }
+        
+        dirty.clear ();
+    }
+    
+    /**
+     * Mark all the digits as changed so the next update sends everything.
+     * Useful if the devices may have lost their contents.
+     */
+    public void invalidate ()
+    {
+        dirty.markAll ();
+    }
+    
+    /**
+     * Put a value into the buffer, marking the digit as changed only if it
+     * has.
+     * 
+     * @param device The device number.
+     * @param digit The digit.
+     * @param value The new value.
+     */
+    private void put (int device, int digit, byte value)
+    {
+        final int index = device * BYTES_PER_DEV + digit;
+        
+        if (buffer[index] != value)
+        {
+            buffer[index] = value;
+            dirty.mark (digit);
+        }
     }
     
     /**
@@ -385,7 +447,27 @@ public class MAX7219
             
         System.out.println ();*/
             
-        dev.write (tx_buffer, 0, tx_buffer.length);
+        send ();
+    }
+    
+    /**
+     * Send the transmit buffer, retrying as the policy says.
+     * 
+     * @throws IOException In case of error.
+     */
+    private void send () throws IOException
+    {
+        retrier.run (() -> dev.write (tx_buffer, 0, tx_buffer.length));
+    }
+    
+    /**
+     * Set the retry policy for writes. The default is not to retry.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
     }
     
     
@@ -434,10 +516,14 @@ public class MAX7219
     private final int chained;
     /** The SPI device we're going to use. */
     private final SpiDevice dev;
+    /** Retries writes as the policy says. */
+    private final Retrier retrier;
     /** The buffer that holds all the display information. */
     private final byte[] buffer;
     /** The buffer we use to transmit commands. */
     private final byte[] tx_buffer;
+    /** Which digits have changed since the last update. */
+    private final DirtyRange dirty = new DirtyRange (BYTES_PER_DEV);
     
     /** No decode mode. The bit maps goes to the segments. */
     public static final byte DECODE_NONE       = 0x00;
@@ -27,14 +27,18 @@ import java.io.IOException;
 /**
  * This class let's us find the right I2C bus to use. It does so by looking at
  * the hardware version. Now it can also return the board type, whether it's a
- * plus (40 pin) board and if it's the original rev1.
+ * plus (40 pin) board and if it's the original rev1. The bus it hands out
+ * goes through a BusExecutor so devices on it can be used from any thread
+ * without their transactions getting mixed up, and its traffic is recorded
+ * by BusMetrics.
  * 
  * @author Jim Darby
  */
 public class Pi2C
 {
     /**
-     * Determine the correct I2C bus to use.
+     * Determine the correct I2C bus to use. All access through it goes via
+     * the bus's executor.
      * @return The bus.
      * @throws IOException In case of error.
      * @throws InterruptedException In case of error.
@@ -43,6 +47,34 @@ public class Pi2C
     {
         check_board ();
         
+        return executor.getBus ();
+    }
+    
+    /**
+     * Return the executor that owns the I2C bus. This lets several
+     * transactions be grouped or queued without waiting.
+     * @return The executor.
+     * @throws IOException In case of error.
+     * @throws InterruptedException In case of error.
+     */
+    public static BusExecutor useExecutor () throws IOException, InterruptedException
+    {
+        check_board ();
+        
+        return executor;
+    }
+    
+    /**
+     * Return the I2C bus itself, bypassing the executor. Only use this if
+     * nothing else is using the bus.
+     * @return The bus.
+     * @throws IOException In case of error.
+     * @throws InterruptedException In case of error.
+     */
+    public static I2CBus useRawBus () throws IOException, InterruptedException
+    {
+        check_board ();
+        
         return bus;
     }
     
@@ -79,6 +111,9 @@ public class Pi2C
      */
     private static synchronized void check_board () throws IOException, InterruptedException
     {   
+        if (board_looked)
+            return;
+        
         int use_i2cbus;
         type = SystemInfo.getBoardType ();
             
@@ -137,11 +172,14 @@ public class Pi2C
             throw new IOException ("Unable to find correct I2C bus.");
         }
         
+        executor = new BusExecutor (BusMetrics.wrap (bus));
         board_looked = true;
     }
     
     /** Holds the bus once we find it */
     private static I2CBus bus = null;
+    /** Holds the executor that owns the bus */
+    private static BusExecutor executor = null;
     /** Have we looked for the board type? */
     private static boolean board_looked = false;
     /** What board type have we found? */
@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class retries bus transactions for a single device according to a
+ * RetryPolicy and keeps the device's circuit breaker. There are two ways to
+ * use it.
+ * <p>
+ * run does a transaction, waiting between tries, which is what a driver's
+ * write methods want.
+ * <p>
+ * runAsync queues a transaction on a BusExecutor and returns at once. If it
+ * fails the next try is scheduled after the delay rather than waited for, so
+ * neither the caller nor the bus thread stalls and other devices' traffic
+ * carries on in the meantime. A driver's run called from inside runAsync
+ * only tries once and leaves the retrying to the outer schedule.
+ *
+ * @author Jim Darby
+ */
+public class Retrier
+{
+    /**
+     * Create a retrier.
+     *
+     * @param policy The policy to follow.
+     * @param metrics Where to record retries or null.
+     */
+    public Retrier (RetryPolicy policy, DeviceMetrics metrics)
+    {
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Change the policy. This also closes the circuit breaker.
+     *
+     * @param policy The new policy.
+     */
+    public synchronized void setPolicy (RetryPolicy policy)
+    {
+        this.policy = policy;
+        failures = 0;
+        probing = false;
+    }
+
+    /**
+     * Return the policy.
+     *
+     * @return The policy.
+     */
+    public synchronized RetryPolicy getPolicy ()
+    {
+        return policy;
+    }
+
+    /**
+     * Do a transaction, retrying it as the policy says.
+     *
+     * @param <T> The type of the result.
+     * @param op The transaction.
+     * @return The result.
+     *
+     * @throws IOException If the circuit breaker is open or the last try
+     * failed.
+     */
+    public <T> T run (BusExecutor.Operation <T> op) throws IOException
+    {
+        final RetryPolicy p = check ();
+        final int max = IN_ASYNC.get () ? 1 : p.getMaxTries ();
+        IOException error;
+        int tries = 0;
+
+        while (true)
+        {
+            try
+            {
+                final T result = op.perform ();
+
+                succeeded (tries + 1);
+                return result;
+            }
+
+            catch (IOException e)
+            {
+                error = e;
+            }
+
+            catch (RuntimeException | Error e)
+            {
+                failed (tries + 1);
+                throw e;
+            }
+
+            if (++tries >= max || Thread.currentThread ().isInterrupted ())
+                break;
+
+            final long until = System.nanoTime () + p.getDelay (tries);
+            long left;
+
+            while ((left = until - System.nanoTime ()) > 0 && !Thread.currentThread ().isInterrupted ())
+                LockSupport.parkNanos (left);
+        }
+
+        failed (tries);
+        throw error;
+    }
+
+    /**
+     * Queue a transaction on a bus, retrying it as the policy says without
+     * blocking.
+     *
+     * @param <T> The type of the result.
+     * @param executor The executor for the bus.
+     * @param op The transaction.
+     * @return A future for the result.
+     */
+    public <T> CompletableFuture <T> runAsync (BusExecutor executor, BusExecutor.Operation <T> op)
+    {
+        final CompletableFuture <T> result = new CompletableFuture <> ();
+
+        attempt (executor, op, result, 1);
+
+        return result;
+    }
+
+    /**
+     * Is the circuit breaker open? It counts as open while the single trial
+     * transaction let through after the open time is still going.
+     *
+     * @return If it is.
+     */
+    public synchronized boolean isOpen ()
+    {
+        return tripped () && (probing || System.nanoTime () - open_until < 0);
+    }
+
+    /**
+     * Close the circuit breaker and forget any failures.
+     */
+    public synchronized void reset ()
+    {
+        failures = 0;
+        probing = false;
+    }
+
+    /**
+     * Return the number of transactions in a row that have failed.
+     *
+     * @return The number of failures.
+     */
+    public synchronized int getFailures ()
+    {
+        return failures;
+    }
+
+    /**
+     * Return the number of tries the last transaction took. This is handy
+     * for logging when a device needs a lot of retries.
+     *
+     * @return The number of tries.
+     */
+    public synchronized int getLastTries ()
+    {
+        return last_tries;
+    }
+
+    /**
+     * Make one try of an asynchronous transaction and schedule the next if
+     * it fails.
+     *
+     * @param <T> The type of the result.
+     * @param executor The executor for the bus.
+     * @param op The transaction.
+     * @param result The future for the whole thing.
+     * @param tries Which try this is.
+     */
+    private <T> void attempt (BusExecutor executor, BusExecutor.Operation <T> op, CompletableFuture <T> result, int tries)
+    {
+        final RetryPolicy p;
+
+        // The breaker is about transactions, not tries, so only the first
+        // try of one has to get past it.
+        if (tries == 1)
+        {
+            try
+            {
+                p = check ();
+            }
+
+            catch (IOException e)
+            {
+                result.completeExceptionally (e);
+                return;
+            }
+        }
+        else
+        {
+            p = getPolicy ();
+        }
+
+        executor.submit (() ->
+        {
+            IN_ASYNC.set (true);
+
+            try
+            {
+                return op.perform ();
+            }
+
+            finally
+            {
+                IN_ASYNC.set (false);
+            }
+        }).whenComplete ((value, t) ->
+        {
+            if (t == null)
+            {
+                succeeded (tries);
+                result.complete (value);
+                return;
+            }
+
+            final Throwable cause = (t instanceof CompletionException && t.getCause () != null) ? t.getCause () : t;
+
+            if (!(cause instanceof IOException) || tries >= p.getMaxTries ())
+            {
+                failed (tries);
+                result.completeExceptionally (cause);
+                return;
+            }
+
+            TIMER.schedule (() -> attempt (executor, op, result, tries + 1), p.getDelay (tries), TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /**
+     * Check the circuit breaker before a transaction. Once it's been open
+     * for long enough one transaction is let through to see if the device is
+     * back and the rest are held off until it has finished.
+     *
+     * @return The policy to use.
+     *
+     * @throws IOException If the breaker is open.
+     */
+    private synchronized RetryPolicy check () throws IOException
+    {
+        if (!tripped ())
+            return policy;
+
+        if (!isOpen ())
+        {
+            probing = true;
+            return policy;
+        }
+
+        throw new IOException ("Circuit breaker open after " + failures + " failures" +
+                ((metrics != null) ? " on " + metrics.getBus () + " 0x" + Integer.toHexString (metrics.getAddress ()) : ""));
+    }
+
+    /**
+     * Note that a transaction worked.
+     *
+     * @param tries The number of tries it took.
+     */
+    private synchronized void succeeded (int tries)
+    {
+        failures = 0;
+        probing = false;
+        last_tries = tries;
+
+        if (tries > 1 && metrics != null)
+            metrics.recordRetries (tries - 1);
+    }
+
+    /**
+     * Note that a transaction failed for good. If that's enough failures in
+     * a row the circuit breaker opens, or opens again if this was the try
+     * let through to test it.
+     *
+     * @param tries The number of tries made.
+     */
+    private synchronized void failed (int tries)
+    {
+        ++failures;
+        probing = false;
+        last_tries = tries;
+
+        if (tries > 1 && metrics != null)
+            metrics.recordRetries (tries - 1);
+
+        if (policy.hasCircuitBreaker () && failures >= policy.getBreakerFailures ())
+            open_until = System.nanoTime () + policy.getBreakerOpenTime ();
+    }
+
+    /**
+     * Have there been enough failures in a row to trip the breaker?
+     *
+     * @return If there have.
+     */
+    private boolean tripped ()
+    {
+        return policy.hasCircuitBreaker () && failures >= policy.getBreakerFailures ();
+    }
+
+    /** The policy. */
+    private RetryPolicy policy;
+    /** Where retries are recorded or null. */
+    private final DeviceMetrics metrics;
+    /** The number of transactions in a row that have failed. */
+    private int failures = 0;
+    /** When the circuit breaker lets a trial transaction through. */
+    private long open_until = 0;
+    /** Is the trial transaction going? */
+    private boolean probing = false;
+    /** The number of tries the last transaction took. */
+    private int last_tries = 0;
+
+    /** Set on the bus thread while doing an asynchronous try. */
+    private static final ThreadLocal <Boolean> IN_ASYNC = ThreadLocal.withInitial (() -> false);
+
+    /** Schedules the asynchronous retries. */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor (r ->
+    {
+        final Thread t = new Thread (r, "Retrier");
+
+        t.setDaemon (true);
+        return t;
+    });
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Devices;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class describes how to retry a bus transaction that fails: how many
+ * times to try, how long to wait between tries, whether to add some random
+ * jitter to the wait and when to give up on a device altogether for a while.
+ * Policies are immutable so one can be shared by any number of drivers; the
+ * state of each device, such as whether its circuit breaker is open, lives
+ * in a Retrier.
+ * <p>
+ * For example, five tries starting 100us apart and doubling, with up to half
+ * of each wait random, and a device that fails ten times in a row left alone
+ * for a second:
+ *
+ * <pre>
+ * RetryPolicy.exponential (5, 100, 2000, TimeUnit.MICROSECONDS).withJitter (0.5).withCircuitBreaker (10, 1, TimeUnit.SECONDS)
+ * </pre>
+ *
+ * @author Jim Darby
+ */
+public final class RetryPolicy
+{
+    /**
+     * Create a policy.
+     *
+     * @param tries The maximum number of tries.
+     * @param initial The first delay in nanoseconds.
+     * @param max The longest delay in nanoseconds.
+     * @param multiplier What each delay is multiplied by for the next.
+     * @param jitter The fraction of each delay that's random.
+     * @param breaker_failures The failures in a row that open the circuit
+     * breaker, zero for none.
+     * @param breaker_open How long the breaker stays open in nanoseconds.
+     */
+    private RetryPolicy (int tries, long initial, long max, double multiplier, double jitter, int breaker_failures, long breaker_open)
+    {
+        TRIES = tries;
+        INITIAL = initial;
+        MAX = max;
+        MULTIPLIER = multiplier;
+        JITTER = jitter;
+        BREAKER_FAILURES = breaker_failures;
+        BREAKER_OPEN = breaker_open;
+    }
+
+    /**
+     * Create a policy with the same delay between every try.
+     *
+     * @param tries The maximum number of tries, at least one.
+     * @param delay The delay between tries.
+     * @param unit The unit of the delay.
+     * @return The policy.
+     */
+    public static RetryPolicy fixed (int tries, long delay, TimeUnit unit)
+    {
+        if (tries < 1 || delay < 0)
+            throw new IllegalArgumentException ("Invalid fixed retry policy " + tries + " tries " + delay + ' ' + unit + " apart");
+
+        final long nanos = unit.toNanos (delay);
+
+        return new RetryPolicy (tries, nanos, nanos, 1, 0, 0, 0);
+    }
+
+    /**
+     * Create a policy where the delay doubles after each failure.
+     *
+     * @param tries The maximum number of tries, at least one.
+     * @param initial The first delay.
+     * @param max The longest delay.
+     * @param unit The unit of the delays.
+     * @return The policy.
+     */
+    public static RetryPolicy exponential (int tries, long initial, long max, TimeUnit unit)
+    {
+        if (tries < 1 || initial < 0 || max < initial)
+            throw new IllegalArgumentException ("Invalid exponential retry policy " + tries + " tries from " + initial + " to " + max + ' ' + unit);
+
+        return new RetryPolicy (tries, unit.toNanos (initial), unit.toNanos (max), 2, 0, 0, 0);
+    }
+
+    /**
+     * Return a copy of this policy that randomises the delays. Each delay is
+     * reduced by a random amount up to the given fraction of it, so devices
+     * that failed together don't all retry together.
+     *
+     * @param fraction The fraction, 0 to 1.
+     * @return The new policy.
+     */
+    public RetryPolicy withJitter (double fraction)
+    {
+        if (!(fraction >= 0 && fraction <= 1))
+            throw new IllegalArgumentException ("Invalid jitter " + fraction);
+
+        return new RetryPolicy (TRIES, INITIAL, MAX, MULTIPLIER, fraction, BREAKER_FAILURES, BREAKER_OPEN);
+    }
+
+    /**
+     * Return a copy of this policy with a circuit breaker. Once a given
+     * number of transactions in a row have failed, even after retrying,
+     * further ones fail at once without touching the bus until the open
+     * time has passed. Then one is let through to see if the device is back.
+     *
+     * @param failures The number of failures in a row that opens it.
+     * @param open How long it stays open.
+     * @param unit The unit of the open time.
+     * @return The new policy.
+     */
+    public RetryPolicy withCircuitBreaker (int failures, long open, TimeUnit unit)
+    {
+        if (failures < 1 || open < 0)
+            throw new IllegalArgumentException ("Invalid circuit breaker " + failures + " failures for " + open + ' ' + unit);
+
+        return new RetryPolicy (TRIES, INITIAL, MAX, MULTIPLIER, JITTER, failures, unit.toNanos (open));
+    }
+
+    /**
+     * Return the maximum number of tries.
+     *
+     * @return The number of tries.
+     */
+    public int getMaxTries ()
+    {
+        return TRIES;
+    }
+
+    /**
+     * Return how long to wait before trying again.
+     *
+     * @param failures The number of tries that have failed so far, at least
+     * one.
+     * @return The delay in nanoseconds.
+     */
+    public long getDelay (int failures)
+    {
+        double delay = INITIAL;
+
+        for (int i = 1; i < failures && delay < MAX; ++i)
+            delay *= MULTIPLIER;
+
+        delay = Math.min (delay, MAX);
+
+        if (JITTER > 0)
+            delay -= delay * JITTER * ThreadLocalRandom.current ().nextDouble ();
+
+        return (long) delay;
+    }
+
+    /**
+     * Does this policy have a circuit breaker?
+     *
+     * @return If it does.
+     */
+    public boolean hasCircuitBreaker ()
+    {
+        return BREAKER_FAILURES > 0;
+    }
+
+    /**
+     * Return the number of failures in a row that opens the circuit breaker.
+     *
+     * @return The number of failures or zero if there's no breaker.
+     */
+    public int getBreakerFailures ()
+    {
+        return BREAKER_FAILURES;
+    }
+
+    /**
+     * Return how long the circuit breaker stays open.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getBreakerOpenTime ()
+    {
+        return BREAKER_OPEN;
+    }
+
+    /**
+     * Return a description of the policy.
+     *
+     * @return The description.
+     */
+    @Override
+    public String toString ()
+    {
+        String result = (MULTIPLIER == 1) ?
+                String.format ("%d tries %dus apart", TRIES, INITIAL / 1000) :
+                String.format ("%d tries from %dus up to %dus apart", TRIES, INITIAL / 1000, MAX / 1000);
+
+        if (JITTER > 0)
+            result += String.format (", %.0f%% jitter", JITTER * 100);
+
+        if (BREAKER_FAILURES > 0)
+            result += String.format (", open after %d failures for %dms", BREAKER_FAILURES, BREAKER_OPEN / 1000000);
+
+        return result;
+    }
+
+    /** Just try once. */
+    public static final RetryPolicy NONE = fixed (1, 0, TimeUnit.NANOSECONDS);
+
+    /** The maximum number of tries. */
+    private final int TRIES;
+    /** The first delay in nanoseconds. */
+    private final long INITIAL;
+    /** The longest delay in nanoseconds. */
+    private final long MAX;
+    /** What each delay is multiplied by for the next one. */
+    private final double MULTIPLIER;
+    /** The fraction of each delay that's random. */
+    private final double JITTER;
+    /** The failures in a row that open the breaker or zero. */
+    private final int BREAKER_FAILURES;
+    /** How long the breaker stays open in nanoseconds. */
+    private final long BREAKER_OPEN;
+}
@@ -66,9 +66,14 @@ public class SN3218
         
         // Allocate device
         device = bus.getDevice (0x54);
+        retrier = new Retrier (RetryPolicy.NONE, BusMetrics.get (bus, 0x54));
      
         // And set everything up
-        device.write (0, WAKEUP, 0, WAKEUP.length);
+        retrier.run (() ->
+        {
+            device.write (0, WAKEUP, 0, WAKEUP.length);
+            return null;
+        });
     }
     
     /**
@@ -87,7 +92,7 @@ public class SN3218
         if (value < 0 || value > 255)
             throw new IllegalArgumentException ("Invalid level " + value);
         
-        data[led] = (byte) value;
+        put (led, value);
     }
     
     /**
@@ -109,25 +114,77 @@ public class SN3218
         if (v1 < 0 || v1 > 255 || v2 < 0 || v2 > 255 || v3 < 0 || v3 > 255)
             throw new IllegalArgumentException ("Invalid colour value");
         
-        data[led * 3    ] = (byte) v1;
-        data[led * 3 + 1] = (byte) v2;
-        data[led * 3 + 2] = (byte) v3;
+        put (led * 3    , v1);
+        put (led * 3 + 1, v2);
+        put (led * 3 + 2, v3);
     }
     
     /**
-     * Update the display. This sends all the updated value to the LEDs.
+     * Update the display. This sends the values that have changed to the
+     * LEDs. The write runs from the first changed value up to and including
+     * the go byte so it all happens in a single transaction. If nothing has
+     * changed nothing is sent.
      * 
      * @throws IOException In case of an I2C error.
      */
     public void update () throws IOException
     {
-        device.write(1, data, 0, data.length);
+        if (!dirty.isDirty ())
+            return;
+        
+        final int low = dirty.getLow ();
+        
+        retrier.run (() ->
+        {
+            device.write (1 + low, data, low, data.length - low);
+            return null;
+        });
+        
+        dirty.clear ();
+    }
+    
+    /**
+     * Set the retry policy for writes. The default is not to retry.
+     * 
+     * @param policy The new policy.
+     */
+    public void setRetryPolicy (RetryPolicy policy)
+    {
+        retrier.setPolicy (policy);
+    }
+    
+    /**
+     * Mark all the values as changed so the next update sends everything.
+     * Useful if the device may have lost its contents.
+     */
+    public void invalidate ()
+    {
+        dirty.markAll ();
+    }
+    
+    /**
+     * Put a value into the data, marking it as changed only if it has.
+     * 
+     * @param index The index to set.
+     * @param value The new value.
+     */
+    private void put (int index, int value)
+    {
+        if (data[index] != (byte) value)
+        {
+            data[index] = (byte) value;
+            dirty.mark (index);
+        }
     }
    
     /** The I2C device. */
     private final I2CDevice device;
+    /** Retries writes as the policy says. */
+    private final Retrier retrier;
     /** The data we hold for the device. Starts at offset ONE in the device! */
     private final byte[] data = new byte[DATA_SIZE];
+    /** What has changed since the last update. */
+    private final DirtyRange dirty = new DirtyRange (DATA_SIZE);
     
     /** The number of LEDs. */
     private final static int LEDS = 18;
@@ -18,10 +18,15 @@
 
 package Jimbo.Devices.WS2811;
 
+import Jimbo.Devices.LastFrame;
+
 import Jimbo.Graphics.Mapping;
+import Jimbo.Graphics.CompiledMapping;
 import Jimbo.Graphics.Point;
 import Jimbo.Graphics.Colour;
+import Jimbo.Graphics.ColourCorrection;
 import Jimbo.Graphics.ColourMatrix;
+import Jimbo.Graphics.MatrixHelper;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -30,6 +35,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 
 /**
  * Provide a sensible interface to the WS2811 library. IT tries to
@@ -37,7 +43,7 @@ import java.nio.file.StandardCopyOption;
  * 
  * @author Jim Darby
  */
-public class WS2811 implements ColourMatrix
+public class WS2811 extends MatrixHelper <Colour> implements ColourMatrix
 {
     /**
      * Create an interface to the WS2811 hardware.
@@ -57,8 +63,9 @@ public class WS2811 implements ColourMatrix
 		   int type,
 		   double brightness)
     {
-        if (width <= 0 || height <= 0 ||
-                (type != WS2811Raw.WS2811_STRIP_RGB) &&
+        super (width, height);
+        
+        if ((type != WS2811Raw.WS2811_STRIP_RGB) &&
                 (type != WS2811Raw.WS2811_STRIP_RBG) &&
                 (type != WS2811Raw.WS2811_STRIP_GRB) &&
                 (type != WS2811Raw.WS2811_STRIP_GBR) &&
@@ -67,28 +74,15 @@ public class WS2811 implements ColourMatrix
                 brightness < 0 || brightness > 1)
             throw new IllegalArgumentException ("Invalid parameter to WS2811");
 
-	i_width = width;
-	i_height = height;
-	max = new Point (i_width - 1, i_height - 1);
+	this.map = map.compile ();
 	
-	final Point out = map.getOutMax ();
+	if (this.map.getInWidth () != WIDTH || this.map.getInHeight () != HEIGHT)
+	    throw new IllegalArgumentException ("Mapping " + map + " doesn't match WS2811 size");
 	
-        final int o_width = out.getX () + 1;
-        final int o_height = out.getY () + 1;
-		
-        leds = o_width * o_height;
-	this.map = new int[leds];
+        leds = this.map.getOutWidth () * this.map.getOutHeight ();
         data = new int[leds];
+        last_frame = new LastFrame (leds);
 
-	for (int y = 0; y < i_height; ++y)
-	    for (int x = 0; x < i_width; ++x)
-            {
-		final Point p = map.map (new Point (x, y));
-		final int value = p.getX () + o_width * p.getY ();
-		
-		this.map[x + i_width * y] = value;
-	    }
-	
         for (int i = 0; i < leds; ++i)
             data[i] = 0;
         
@@ -98,31 +92,44 @@ public class WS2811 implements ColourMatrix
             throw new IllegalArgumentException ("Unable to start WS2811");
         
         WS2811Raw.ws2811_brightness ((int) (brightness * 255));
-        WS2811Raw.ws2811_update (data);
+        show ();
     }
     
     /**
      * Set a specific pixel to a specific RGB value. This works in the
      * most efficient way.
      * 
-     * @param p The point to set.
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
      * @param r Red value: [0,255].
      * @param g Green value: [0,255].
      * @param b Blue value: [0,255].
      */
     @Override
-    public void setPixel (Point p, int r, int g, int b)
-    {       
-	if (!p.inside (max) ||
-                r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255)
+    public void setPixel (int x, int y, int r, int g, int b)
+    {
+        if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255)
             throw new IllegalArgumentException ("Invalid parameter to WS2811.setPixel");
-
-	final int x = p.getX ();
-	final int y = p.getY ();
 	
-	// System.out.println ("pos " + x + ',' + y + " -> " + map[x + i_width * y]);
+	// System.out.println ("pos " + x + ',' + y + " -> " + map.mapIndex (x, y));
 	 
-        data[map[x + i_width * y]] = (r << 16) | (g << 8) | b;
+        final ColourCorrection c = correction;
+        
+        data[map.mapIndex (x, y)] = (c == null) ? (r << 16) | (g << 8) | b : c.correct (r, g, b);
+    }
+    
+    /**
+     * Set a specific pixel to a specific RGB value.
+     * 
+     * @param p The point to set.
+     * @param r Red value: [0,255].
+     * @param g Green value: [0,255].
+     * @param b Blue value: [0,255].
+     */
+    @Override
+    public void setPixel (Point p, int r, int g, int b)
+    {       
+	setPixel (p.getX (), p.getY (), r, g, b);
     }
     
     /**
@@ -135,28 +142,140 @@ public class WS2811 implements ColourMatrix
     @Override
     public void setPixel (Point p, Colour c)
     {
-        setPixel (p, c.getRed (), c.getGreen (), c.getBlue ());
+        setPixel (p.getX (), p.getY (), c.getRed (), c.getGreen (), c.getBlue ());
     }
     
     /**
-     * Send the data to the string.
+     * Sets a rectangle of pixels from packed 0xRRGGBB values. The area is
+     * checked once and the values go straight through the map into the
+     * data sent to the string.
+     * 
+     * @param rgb The packed pixel data.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
      */
     @Override
-    public void show ()
+    public void setPixels (int[] rgb, int x, int y, int w, int h)
     {
-        WS2811Raw.ws2811_update (data);
+        validateArea (rgb.length, x, y, w, h);
+        
+        final ColourCorrection c = correction;
+        
+        // Where the mapping is the identity or a reversal skip the table.
+        if (c == null && map.isIdentity ())
+        {
+            for (int j = 0; j < h; ++j)
+            {
+                final int in = w * j;
+                final int out = x + WIDTH * (y + j);
+                
+                // Callers can leave alpha or other bits in the top byte and
+                // show compares whole values, so it has to go. Masking as we
+                // copy is one pass where arraycopy plus a mask loop is two,
+                // and rows are short enough that arraycopy gains nothing.
+                for (int i = 0; i < w; ++i)
+                    data[out + i] = rgb[in + i] & 0xffffff;
+            }
+            
+            return;
+        }
+        
+        if (map.isReversal ())
+        {
+            final int last = WIDTH * HEIGHT - 1;
+            
+            for (int j = 0; j < h; ++j)
+            {
+                final int in = w * j;
+                final int out = last - (x + WIDTH * (y + j));
+                
+                for (int i = 0; i < w; ++i)
+                    data[out - i] = (c == null) ? rgb[in + i] & 0xffffff : c.correct (rgb[in + i]);
+            }
+            
+            return;
+        }
+        
+        for (int j = 0; j < h; ++j)
+        {
+            final int in = w * j;
+            final int base = x + WIDTH * (y + j);
+            
+            if (c == null)
+                for (int i = 0; i < w; ++i)
+                    data[map.mapIndex (base + i)] = rgb[in + i] & 0xffffff;
+            else
+                for (int i = 0; i < w; ++i)
+                    data[map.mapIndex (base + i)] = c.correct (rgb[in + i]);
+        }
     }
     
     /**
-     * Return a point with the maximum values for X and Y in this
-     * matrix.
+     * Set every pixel on the string to the same colour. Only LEDs that are
+     * mapped to are changed.
      * 
-     * @return The maximum size.
+     * @param rgb The colour in the form 0xRRGGBB.
      */
     @Override
-    public Point getMax ()
+    public void fill (int rgb)
+    {
+        final ColourCorrection c = correction;
+        final int value = (c == null) ? rgb & 0xffffff : c.correct (rgb);
+        
+        // Identity and reversal both cover every LED in order.
+        if (map.isIdentity () || map.isReversal ())
+        {
+            Arrays.fill (data, 0, WIDTH * HEIGHT, value);
+            return;
+        }
+        
+        for (int i = 0; i < WIDTH * HEIGHT; ++i)
+            data[map.mapIndex (i)] = value;
+    }
+    
+    /**
+     * Send the data to the string. If nothing has changed since the last
+     * update nothing is sent.
+     */
+    @Override
+    public final void show ()
+    {
+        if (last_frame.changed (data))
+            WS2811Raw.ws2811_update (data);
+    }
+    
+    /**
+     * Return the record of the last frame sent. This keeps count of the
+     * frames suppressed because they hadn't changed.
+     * 
+     * @return The LastFrame.
+     */
+    public LastFrame getLastFrame ()
     {
-        return max;
+        return last_frame;
+    }
+    
+    /**
+     * Set the colour correction applied as pixels are set. It affects pixels
+     * set after this call.
+     * 
+     * @param correction The correction or null for none.
+     */
+    public void setColourCorrection (ColourCorrection correction)
+    {
+        this.correction = correction;
+    }
+    
+    /**
+     * Return the colour correction in use.
+     * 
+     * @return The correction or null if there isn't one.
+     */
+    public ColourCorrection getColourCorrection ()
+    {
+        return correction;
     }
     
     /**
@@ -221,20 +340,17 @@ public class WS2811 implements ColourMatrix
         nativeLoaded = true;
     }
 
-    /** The total input width. */
-    final private int i_width;
-    /** The total input height. */
-    final private int i_height;
-    /** A point containing the maximum values for X and Y. */
-    final private Point max;
-    
     /** The total number of LEDs (WS2811s to be precise) we have. */
     final private int leds;
 
     /** The map from input (X,Y) to data (X,Y). */
-    final private int[] map;
+    final private CompiledMapping map;
     /** The data of what is on the string (or will be when show is called. */
     final private int[] data;
+    /** The record of the last frame sent. */
+    final private LastFrame last_frame;
+    /** The colour correction to apply or null for none. */
+    private ColourCorrection correction = null;
     
     /** Have we loaded the native library. */
     private static boolean nativeLoaded = false;
@@ -51,6 +51,32 @@ public interface BitMatrix extends Matrix <Boolean>
 	setPixel (p.getX (), p.getY (), on);
     }
     
+    /**
+     * Sets the pixels covered by a PackedBitFrame. The frame's bottom left
+     * goes at (x,y) and the whole frame must fit. This version just calls the
+     * abstract method for each pixel, drivers that can do better should
+     * override it.
+     * 
+     * @param f The frame.
+     * @param x The X coordinate for the frame's bottom left.
+     * @param y The Y coordinate for the frame's bottom left.
+     */
+    default public void setPixels (PackedBitFrame f, int x, int y)
+    {
+        if (x < 0 || y < 0 || x + f.WIDTH > getWidth () || y + f.HEIGHT > getHeight ())
+            throw new IllegalArgumentException ("PackedBitFrame doesn't fit at (" + x + ',' + y + ')');
+        
+        final long[] rows = f.getRows ();
+        
+        for (int j = 0; j < f.HEIGHT; ++j)
+        {
+            final long row = rows[j];
+            
+            for (int i = 0; i < f.WIDTH; ++i)
+                setPixel (x + i, y + j, ((row >>> i) & 1L) != 0);
+        }
+    }
+    
     /**
      * Clear (blank) a pixel at a specific point.
      * 
@@ -28,27 +28,60 @@ import java.io.IOException;
 public class BitMatrixDemo
 {
     /**
-     * Run the demo given a ColourMatrix.
+     * Run the demo given a BitMatrix, for ever.
      * 
-     * @param m The ColourMatrix to use.
+     * @param m The BitMatrix to use.
      * 
      * @throws InterruptedException In case of thread badness.
      * @throws java.io.IOException In case of trouble.
      */
     public static void run (BitMatrix m) throws InterruptedException, IOException
     {
-        final Point limits = m.getMax ();
-        final int max_x = limits.getX ();
-        final int max_y = limits.getY ();
+        run (m, RATE, 0);
+    }
+    
+    /**
+     * Run the demo given a BitMatrix at a given rate for a given number of
+     * frames. With a rate of zero it runs as fast as the matrix can be
+     * updated, which is useful for benchmarking.
+     * 
+     * @param m The BitMatrix to use.
+     * @param rate The frame rate in Hz, or zero for unpaced.
+     * @param frames The number of frames to show, or zero for ever.
+     * 
+     * @throws InterruptedException In case of thread badness.
+     * @throws java.io.IOException In case of trouble.
+     */
+    public static void run (BitMatrix m, double rate, long frames) throws InterruptedException, IOException
+    {
+        if (rate < 0)
+            throw new IllegalArgumentException ("Invalid rate " + rate);
+        
+        if (frames < 0)
+            throw new IllegalArgumentException ("Invalid frame count " + frames);
+        
+        final PackedBitFrame f = new PackedBitFrame (m);
+        final FramePacer pacer = (rate > 0) ? new FramePacer (rate) : null;
+        long shown = 0;
         
+        // Wipe it on and then off again a column at a time, handing each
+        // frame to the matrix in one go and showing it once.
         while (true)
             for (int on = 0; on < 2; ++on)
-                for (int x = 0; x <= max_x; ++x)
-                    for (int y = 0; y <= max_y; ++y)
-                    {
-                        m.setPixel (x, y, on == 0);
-                        m.show ();
-                        Thread.sleep (50);
-                    }
+                for (int x = 0; x < f.WIDTH; ++x)
+                {
+                    if (frames != 0 && shown++ == frames)
+                        return;
+                    
+                    f.setColumn (x, (on == 0) ? -1L : 0);
+                    m.setPixels (f, 0, 0);
+                    m.show ();
+                    
+                    if (pacer != null)
+                        pacer.sync ();
+                }
     }
+    
+    /** The default frame rate in Hz. */
+    private static final int RATE = 10;
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class wraps a ColourMatrix so that show doesn't wait for the data to
+ * go out over the bus. Drawing goes into a back buffer and show swaps it with
+ * the front buffer, which a separate thread then sends to the real matrix.
+ * The next frame can be drawn while the current one is being sent.
+ *
+ * If the previous frame is still being sent when show is called the new frame
+ * is dropped (and counted) rather than waiting. Any error from sending a frame
+ * is thrown by the next call to show.
+ *
+ * @author Jim Darby
+ */
+public class BufferedMatrix extends MatrixHelper <Colour> implements ColourMatrix, AutoCloseable
+{
+    /**
+     * Construct a BufferedMatrix in front of another ColourMatrix. This
+     * starts the thread that does the sending.
+     *
+     * @param target The ColourMatrix to send the frames to.
+     */
+    public BufferedMatrix (ColourMatrix target)
+    {
+        super (target.getWidth (), target.getHeight ());
+
+        this.target = target;
+        back = new int[WIDTH * HEIGHT];
+        front = new int[WIDTH * HEIGHT];
+
+        flusher = new Thread (this::flusher, "BufferedMatrix flusher");
+        flusher.setDaemon (true);
+        flusher.start ();
+    }
+
+    /**
+     * Sets a pixel in the back buffer to a specific colour.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @param r The red value: 0 to 255.
+     * @param g The green value: 0 to 255.
+     * @param b The blue value: 0 to 255.
+     */
+    @Override
+    public void setPixel (int x, int y, int r, int g, int b)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for setPixel");
+
+        back[x + WIDTH * y] = Colour.pack (r, g, b);
+    }
+
+    /**
+     * Sets a rectangle of pixels in the back buffer from packed 0xRRGGBB
+     * values. Each row is a straight array copy.
+     *
+     * @param rgb The packed pixel data.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (int[] rgb, int x, int y, int w, int h)
+    {
+        validateArea (rgb.length, x, y, w, h);
+
+        for (int j = 0; j < h; ++j)
+            System.arraycopy (rgb, w * j, back, x + WIDTH * (y + j), w);
+    }
+
+    /**
+     * Set every pixel in the back buffer to the same colour.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    @Override
+    public void fill (int rgb)
+    {
+        Arrays.fill (back, rgb & 0xffffff);
+    }
+
+    /**
+     * Return the packed colour of a pixel in the back buffer.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @return The colour in the form 0xRRGGBB.
+     */
+    public int getPixel (int x, int y)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for getPixel");
+
+        return back[x + WIDTH * y];
+    }
+
+    /**
+     * Hand the current frame over to be sent. This doesn't wait for it to be
+     * sent. If the previous frame is still going out then this one is dropped.
+     * The back buffer keeps its contents either way so drawing can carry on
+     * from where it left off.
+     *
+     * @throws IOException If sending an earlier frame failed or we're closed.
+     */
+    @Override
+    public void show () throws IOException
+    {
+        synchronized (lock)
+        {
+            checkError ();
+
+            if (closed)
+                throw new IOException ("BufferedMatrix is closed");
+
+            if (busy)
+            {
+                ++dropped;
+                return;
+            }
+
+            final int[] t = front;
+
+            front = back;
+            back = t;
+            System.arraycopy (front, 0, back, 0, back.length);
+
+            busy = true;
+            ++shown;
+            lock.notifyAll ();
+        }
+    }
+
+    /**
+     * Wait for any frame in progress to be sent and then send the current
+     * frame, waiting for that one too. This makes sure the last frame drawn
+     * is the one on the display even if an earlier show dropped it.
+     *
+     * @throws IOException If sending a frame failed or we're closed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void flush () throws IOException, InterruptedException
+    {
+        synchronized (lock)
+        {
+            while (busy)
+                lock.wait ();
+
+            show ();
+
+            while (busy)
+                lock.wait ();
+
+            checkError ();
+        }
+    }
+
+    /**
+     * Return the number of frames dropped because the previous frame was
+     * still being sent.
+     *
+     * @return The number of dropped frames.
+     */
+    public long getDropped ()
+    {
+        synchronized (lock)
+        {
+            return dropped;
+        }
+    }
+
+    /**
+     * Return the number of frames handed over to be sent.
+     *
+     * @return The number of frames shown.
+     */
+    public long getShown ()
+    {
+        synchronized (lock)
+        {
+            return shown;
+        }
+    }
+
+    /**
+     * Return the ColourMatrix we're sending to.
+     *
+     * @return The target matrix.
+     */
+    public ColourMatrix getTarget ()
+    {
+        return target;
+    }
+
+    /**
+     * Stop the sending thread. Any frame in progress is allowed to finish.
+     */
+    @Override
+    public void close ()
+    {
+        synchronized (lock)
+        {
+            closed = true;
+            lock.notifyAll ();
+        }
+    }
+
+    /**
+     * If the sending thread hit a problem then throw it here, once.
+     *
+     * @throws IOException The problem.
+     */
+    private void checkError () throws IOException
+    {
+        if (error == null)
+            return;
+
+        final Throwable e = error;
+
+        error = null;
+
+        if (e instanceof IOException)
+            throw (IOException) e;
+
+        throw new IOException ("BufferedMatrix flush failed", e);
+    }
+
+    /**
+     * The sending thread. It waits for a frame, sends it and then marks
+     * itself as not busy. Anything the target throws, even an Error, is kept
+     * for the next show so this thread always carries on.
+     */
+    private void flusher ()
+    {
+        while (true)
+        {
+            final int[] frame;
+
+            synchronized (lock)
+            {
+                while (!busy && !closed)
+                {
+                    try
+                    {
+                        lock.wait ();
+                    }
+
+                    catch (InterruptedException e)
+                    {
+                        closed = true;
+                    }
+                }
+
+                if (!busy)
+                    return;
+
+                frame = front;
+            }
+
+            Throwable problem = null;
+
+            try
+            {
+                target.setPixels (frame, 0, 0, WIDTH, HEIGHT);
+                target.show ();
+            }
+
+            catch (IOException | RuntimeException | Error e)
+            {
+                problem = e;
+            }
+
+            finally
+            {
+                synchronized (lock)
+                {
+                    if (problem != null)
+                        error = problem;
+
+                    busy = false;
+                    lock.notifyAll ();
+                }
+            }
+        }
+    }
+
+    /** The matrix we send the frames to. */
+    private final ColourMatrix target;
+    /** The thread that does the sending. */
+    private final Thread flusher;
+    /** The lock that protects the buffers and state. */
+    private final Object lock = new Object ();
+    /** The buffer we draw into. */
+    private int[] back;
+    /** The buffer being sent. */
+    private int[] front;
+    /** Is the front buffer being sent? */
+    private boolean busy = false;
+    /** Have we been closed? */
+    private boolean closed = false;
+    /** A problem from sending a frame not yet reported. */
+    private Throwable error = null;
+    /** The number of frames dropped. */
+    private long dropped = 0;
+    /** The number of frames handed to the sender. */
+    private long shown = 0;
+}
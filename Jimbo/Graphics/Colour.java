@@ -19,7 +19,9 @@
 package Jimbo.Graphics;
 
 /**
- * This class describes a colour.
+ * This class describes a colour. Internally it's held as a single packed
+ * integer of the form 0xRRGGBB and there are static methods for working with
+ * packed colours directly, which avoids creating an object per pixel.
  * 
  * @author Jim Darby
  */
@@ -35,14 +37,7 @@ public class Colour
      */
    public Colour (int red, int green, int blue)
    {
-       if (red < 0 || red > 255 ||
-               green < 0 || green > 255 ||
-               blue < 0 || blue > 255)
-            throw new IllegalArgumentException ("Invalid parameter to Colour");
-       
-       this.red   = red;
-       this.green = green;
-       this.blue  = blue;
+       rgb = pack (red, green, blue);
    }
    
    /**
@@ -55,34 +50,90 @@ public class Colour
     */
    public Colour (double angle)
    {
-       if (angle >= 0 && angle < 120)
-       {
-           red = (int) (255 * (120.0 - angle) / 120.0);
-           green = 255 - red;
-           blue = 0;
-           
-           return;
-       }
-       
-       if (angle >= 120 && angle < 240)
-       {
-           red = 0;
-           green = (int) (255 * (240.0 - angle) / 120.0);
-           blue = 255 - green;
-           
-           return;
-       }
+       rgb = compute (angle);
+   }
+   
+   /**
+    * Create a Colour from a packed value of the form 0xRRGGBB. Anything above
+    * the bottom 24 bits is ignored.
+    * 
+    * @param rgb The packed colour.
+    * @return The Colour.
+    */
+   public static Colour rgb (int rgb)
+   {
+       return new Colour (red (rgb), green (rgb), blue (rgb));
+   }
+   
+   /**
+    * Pack red, green and blue values into a single integer of the form
+    * 0xRRGGBB. All must be in the range 0 to 255. If this condition isn't met
+    * it will throw an IllegalArgumentException.
+    * 
+    * @param red The red component.
+    * @param green The green component.
+    * @param blue The blue component.
+    * @return The packed colour.
+    */
+   public static int pack (int red, int green, int blue)
+   {
+       if (red < 0 || red > 255 ||
+               green < 0 || green > 255 ||
+               blue < 0 || blue > 255)
+            throw new IllegalArgumentException ("Invalid parameter to Colour");
        
-       if (angle >= 240 && angle <= 360)
-       {
-           green = 0;
-           blue = (int) (255 * (360.0 - angle) / 120.0);
-           red = 255 - blue;
-           
-           return;
-       }
+       return (red << 16) | (green << 8) | blue;
+   }
+   
+   /**
+    * Return the red component of a packed colour.
+    * 
+    * @param rgb The packed colour.
+    * @return The red value.
+    */
+   public static int red (int rgb)
+   {
+       return (rgb >> 16) & 0xff;
+   }
+   
+   /**
+    * Return the green component of a packed colour.
+    * 
+    * @param rgb The packed colour.
+    * @return The green value.
+    */
+   public static int green (int rgb)
+   {
+       return (rgb >> 8) & 0xff;
+   }
+   
+   /**
+    * Return the blue component of a packed colour.
+    * 
+    * @param rgb The packed colour.
+    * @return The blue value.
+    */
+   public static int blue (int rgb)
+   {
+       return rgb & 0xff;
+   }
+   
+   /**
+    * Return the packed colour for an angle in the colour wheel, given in
+    * tenths of a degree. This is the same wheel as the Colour (double)
+    * constructor but is just an array lookup. It must be in the range 0 to
+    * 3600 inclusive. If this condition isn't met it will throw an
+    * IllegalArgumentException.
+    * 
+    * @param tenths The angle in tenths of a degree: 0 to 3600 inclusive.
+    * @return The packed colour.
+    */
+   public static int wheel (int tenths)
+   {
+       if (tenths < 0 || tenths > WHEEL_STEPS)
+           throw new IllegalArgumentException ("Invalid parameter to Colour.wheel");
        
-       throw new IllegalArgumentException ("Invalid parameter to Colour");
+       return WHEEL[tenths];
    }
    
    /**
@@ -92,7 +143,7 @@ public class Colour
     */
    public int getRed ()
    {
-       return red;
+       return red (rgb);
    }
    
    /**
@@ -102,7 +153,7 @@ public class Colour
     */
    public int getGreen ()
    {
-       return green;
+       return green (rgb);
    }
    
    /**
@@ -112,13 +163,62 @@ public class Colour
     */
    public int getBlue ()
    {
-       return blue;
+       return blue (rgb);
+   }
+   
+   /**
+    * Return the colour packed in the form 0xRRGGBB.
+    * 
+    * @return The packed value.
+    */
+   public int getRGB ()
+   {
+       return rgb;
+   }
+   
+   /**
+    * Work out the packed colour for an angle in the colour wheel.
+    * 
+    * @param angle The angle in the range 0 to 360 inclusive.
+    * @return The packed colour.
+    */
+   private static int compute (double angle)
+   {
+       if (angle >= 0 && angle < 120)
+       {
+           final int red = (int) (255 * (120.0 - angle) / 120.0);
+           
+           return (red << 16) | ((255 - red) << 8);
+       }
+       
+       if (angle >= 120 && angle < 240)
+       {
+           final int green = (int) (255 * (240.0 - angle) / 120.0);
+           
+           return (green << 8) | (255 - green);
+       }
+       
+       if (angle >= 240 && angle <= 360)
+       {
+           final int blue = (int) (255 * (360.0 - angle) / 120.0);
+           
+           return ((255 - blue) << 16) | blue;
+       }
+       
+       throw new IllegalArgumentException ("Invalid parameter to Colour");
    }
    
-   /** Where we store the red value. */
-   final private int red;
-   /** Where we store the green value. */
-   final private int green;
-   /** Where we store the blue value. */
-   final private int blue;
+   /** Where we store the packed value. */
+   final private int rgb;
+   
+   /** The number of steps in the colour wheel (tenths of a degree). */
+   public static final int WHEEL_STEPS = 3600;
+   /** The precomputed colour wheel, one entry per tenth of a degree. */
+   private static final int[] WHEEL = new int[WHEEL_STEPS + 1];
+   
+   static
+   {
+       for (int i = 0; i <= WHEEL_STEPS; ++i)
+           WHEEL[i] = compute (i / 10.0);
+   }
 }
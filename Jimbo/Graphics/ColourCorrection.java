@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+/**
+ * This class holds the colour correction applied by a driver as it fills its
+ * output buffer: gamma, overall brightness and a per-channel white balance.
+ * It's all folded into a 256 entry table per channel so correcting a pixel is
+ * three lookups. Changing a setting rebuilds the tables, nothing is worked out
+ * per pixel.
+ *
+ * Drivers apply the correction when a pixel is set so a change affects pixels
+ * set after it, not those already set.
+ *
+ * @author Jim Darby
+ */
+public class ColourCorrection
+{
+    /**
+     * Create a colour correction that does nothing: gamma 1, full brightness
+     * and no white balance adjustment.
+     */
+    public ColourCorrection ()
+    {
+        this (1.0, 1.0);
+    }
+
+    /**
+     * Create a colour correction with a given gamma and brightness and no
+     * white balance adjustment.
+     *
+     * @param gamma The gamma: greater than zero, LEDs typically want 2.2 to
+     * 2.8.
+     * @param brightness The brightness: 0.0 to 1.0.
+     */
+    public ColourCorrection (double gamma, double brightness)
+    {
+        validateGamma (gamma);
+        validateScale (brightness);
+
+        this.gamma = gamma;
+        this.brightness = brightness;
+        red_balance = 1.0;
+        green_balance = 1.0;
+        blue_balance = 1.0;
+
+        rebuild ();
+    }
+
+    /**
+     * Set the gamma. This rebuilds the tables.
+     *
+     * @param gamma The gamma: greater than zero.
+     */
+    public synchronized void setGamma (double gamma)
+    {
+        validateGamma (gamma);
+
+        this.gamma = gamma;
+        rebuild ();
+    }
+
+    /**
+     * Set the brightness. This rebuilds the tables.
+     *
+     * @param brightness The brightness: 0.0 to 1.0.
+     */
+    public synchronized void setBrightness (double brightness)
+    {
+        validateScale (brightness);
+
+        this.brightness = brightness;
+        rebuild ();
+    }
+
+    /**
+     * Set the white balance. Each channel is scaled by its value so the one
+     * that's too strong can be turned down. This rebuilds the tables.
+     *
+     * @param red The red scale: 0.0 to 1.0.
+     * @param green The green scale: 0.0 to 1.0.
+     * @param blue The blue scale: 0.0 to 1.0.
+     */
+    public synchronized void setWhiteBalance (double red, double green, double blue)
+    {
+        validateScale (red);
+        validateScale (green);
+        validateScale (blue);
+
+        red_balance = red;
+        green_balance = green;
+        blue_balance = blue;
+        rebuild ();
+    }
+
+    /**
+     * Return the gamma.
+     *
+     * @return The gamma.
+     */
+    public synchronized double getGamma ()
+    {
+        return gamma;
+    }
+
+    /**
+     * Return the brightness.
+     *
+     * @return The brightness.
+     */
+    public synchronized double getBrightness ()
+    {
+        return brightness;
+    }
+
+    /**
+     * Correct a packed colour.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     * @return The corrected colour in the form 0xRRGGBB.
+     */
+    public int correct (int rgb)
+    {
+        final Tables t = tables;
+
+        return t.red[(rgb >> 16) & 0xff] | t.green[(rgb >> 8) & 0xff] | t.blue[rgb & 0xff];
+    }
+
+    /**
+     * Correct a colour given as separate values. The values are not checked
+     * so should have been validated by the caller.
+     *
+     * @param r The red value: 0 to 255.
+     * @param g The green value: 0 to 255.
+     * @param b The blue value: 0 to 255.
+     * @return The corrected colour in the form 0xRRGGBB.
+     */
+    public int correct (int r, int g, int b)
+    {
+        final Tables t = tables;
+
+        return t.red[r] | t.green[g] | t.blue[b];
+    }
+
+    /**
+     * Rebuild the tables from the current settings. The new tables are
+     * swapped in in one go so a reader always sees a consistent set.
+     */
+    private void rebuild ()
+    {
+        tables = new Tables (build (red_balance, 16), build (green_balance, 8), build (blue_balance, 0));
+    }
+
+    /**
+     * Build a single channel's table. The values are stored already shifted
+     * into place so they just need to be or-ed together.
+     *
+     * @param balance The channel's white balance.
+     * @param shift The channel's position in the packed colour.
+     * @return The table.
+     */
+    private int[] build (double balance, int shift)
+    {
+        final int[] table = new int[256];
+        final double scale = 255 * brightness * balance;
+
+        for (int i = 0; i < table.length; ++i)
+        {
+            final int v = (int) (scale * Math.pow (i / 255.0, gamma) + 0.5);
+
+            table[i] = Math.min (255, Math.max (0, v)) << shift;
+        }
+
+        return table;
+    }
+
+    /**
+     * Check a gamma value.
+     *
+     * @param gamma The gamma.
+     */
+    private static void validateGamma (double gamma)
+    {
+        if (!(gamma > 0 && gamma <= 10))
+            throw new IllegalArgumentException ("Invalid gamma " + gamma);
+    }
+
+    /**
+     * Check a brightness or white balance scale.
+     *
+     * @param scale The scale.
+     */
+    private static void validateScale (double scale)
+    {
+        if (!(scale >= 0 && scale <= 1))
+            throw new IllegalArgumentException ("Invalid scale " + scale);
+    }
+
+    /**
+     * A consistent set of tables.
+     */
+    private static final class Tables
+    {
+        /**
+         * Construct the set.
+         *
+         * @param red The red table.
+         * @param green The green table.
+         * @param blue The blue table.
+         */
+        Tables (int[] red, int[] green, int[] blue)
+        {
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+        }
+
+        /** The red table. */
+        final int[] red;
+        /** The green table. */
+        final int[] green;
+        /** The blue table. */
+        final int[] blue;
+    }
+
+    /** The gamma. */
+    private double gamma;
+    /** The brightness. */
+    private double brightness;
+    /** The red white balance. */
+    private double red_balance;
+    /** The green white balance. */
+    private double green_balance;
+    /** The blue white balance. */
+    private double blue_balance;
+    /** The current tables. */
+    private volatile Tables tables;
+}
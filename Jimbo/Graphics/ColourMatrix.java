@@ -76,7 +76,53 @@ public interface ColourMatrix extends Matrix <Colour>
     {
         setPixel (x, y, c.getRed (), c.getGreen (), c.getBlue ());
     }
-    
+
+    /**
+     * Sets a rectangle of pixels from packed 0xRRGGBB values. The data is
+     * held a row at a time with rgb[i + w * j] going to pixel (x + i, y + j).
+     * This version just calls the abstract method for each pixel, drivers
+     * that can do better should override it.
+     *
+     * @param rgb The packed pixel data. It must hold at least w * h values.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    default public void setPixels (int[] rgb, int x, int y, int w, int h)
+    {
+        if (w < 0 || h < 0 || rgb.length < w * h)
+            throw new IllegalArgumentException ("Invalid data for setPixels");
+
+        for (int j = 0; j < h; ++j)
+            for (int i = 0; i < w; ++i)
+            {
+                final int value = rgb[i + w * j];
+
+                setPixel (x + i, y + j, (value >> 16) & 0xff, (value >> 8) & 0xff, value & 0xff);
+            }
+    }
+
+    /**
+     * Sets every pixel in the matrix to the same packed colour. This version
+     * calls the abstract method for each pixel, drivers that can do better
+     * should override it.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    default public void fill (int rgb)
+    {
+        final int r = (rgb >> 16) & 0xff;
+        final int g = (rgb >> 8) & 0xff;
+        final int b = rgb & 0xff;
+        final int width = getWidth ();
+        final int height = getHeight ();
+
+        for (int y = 0; y < height; ++y)
+            for (int x = 0; x < width; ++x)
+                setPixel (x, y, r, g, b);
+    }
+
     /**
      * Clear (blank) a pixel at a specific point.
      * 
@@ -48,7 +48,8 @@ public class ColourMatrixDemo implements Runnable
     
     /**
      * Run the demo given a ColourMatrix. This is a static, non-threaded
-     * version but is used by the threaded non-static version.
+     * version but is used by the threaded non-static version. It runs for
+     * ever.
      * 
      * @param m The ColourMatrix to use.
      * 
@@ -57,6 +58,30 @@ public class ColourMatrixDemo implements Runnable
      */
     public static void run (ColourMatrix m) throws InterruptedException, IOException
     {
+        run (m, RATE, 0);
+    }
+    
+    /**
+     * Run the demo given a ColourMatrix with the rainbow at a given rate for
+     * a given number of frames. With a rate of zero nothing waits, not even
+     * the initial scan, so it runs as fast as the matrix can be updated,
+     * which is useful for benchmarking.
+     * 
+     * @param m The ColourMatrix to use.
+     * @param rate The frame rate of the rainbow in Hz, or zero for unpaced.
+     * @param frames The number of rainbow frames to show, or zero for ever.
+     * 
+     * @throws InterruptedException In case of thread badness.
+     * @throws java.io.IOException In case of trouble.
+     */
+    public static void run (ColourMatrix m, double rate, long frames) throws InterruptedException, IOException
+    {
+        if (rate < 0)
+            throw new IllegalArgumentException ("Invalid rate " + rate);
+        
+        if (frames < 0)
+            throw new IllegalArgumentException ("Invalid frame count " + frames);
+        
         final Point limits = m.getMax ();
         final int max_x = limits.getX ();
         final int max_y = limits.getY ();
@@ -66,7 +91,7 @@ public class ColourMatrixDemo implements Runnable
         for (int y = 0; y <= max_y; ++y)
             for (int x = 0; x <= max_x; ++x)
             {
-                final Point p = new Point (x, y);
+                final Point p = Point.of (x, y);
                 
                 for (int phase = 0; phase < 3; ++phase)
                 {
@@ -75,48 +100,70 @@ public class ColourMatrixDemo implements Runnable
                             (phase == 1) ? 0x80 : 0x00,
                             (phase == 2) ? 0x80 : 0x00);
                     m.show ();
-                    Thread.sleep (100);
+                    
+                    if (rate > 0)
+                        Thread.sleep (SCAN_ON);
+                    
                     m.setPixel (p, 0x00, 0x00, 0x00);
                     m.show ();
-                    Thread.sleep (25);
+                    
+                    if (rate > 0)
+                        Thread.sleep (SCAN_OFF);
                 }
             }
         
         // "I made it rainbow!" TM
         
-        int phase = 0;
+        // Work out where each pixel sits in the wheel once, in tenths of a
+        // degree, and then each frame is just a table lookup per pixel.
         
+        final FrameBuffer frame = new FrameBuffer (m);
+        final int[] pixels = frame.getData ();
+        final int[] base = new int[pixels.length];
         final double max_distance = Math.sqrt (max_x * max_x + max_y * max_y);
         
-        while (true)
+        for (int y = 0; y <= max_y; ++y)
+            for (int x = 0; x <= max_x; ++x)
+            {
+                final double distance = Math.sqrt (x*x + y*y);
+                final double fraction = distance / max_distance;
+                
+                base[x + frame.WIDTH * y] = (int) (Colour.WHEEL_STEPS * (1 - fraction));
+            }
+        
+        final FramePacer pacer = (rate > 0) ? new FramePacer (rate) : null;
+        int phase = 0;
+        
+        for (long shown = 0; frames == 0 || shown < frames; ++shown)
         {
-            for (int y = 0; y <= limits.getY (); ++y)
-                for (int x = 0; x <= limits.getX (); ++x)
-                {
-                    final double distance = Math.sqrt (x*x + y*y);
-                    final double fraction = distance / max_distance;
-                    
-                    double value = 360 * (1 - fraction) + phase;
-                    
-                    if (value > 360)
-                        value -= 360;
-                    
-                    final Colour c = new Colour (value);
-                    
-                    m.setPixel (new Point (x, y), c);
-                }
+            for (int i = 0; i < pixels.length; ++i)
+            {
+                int value = base[i] + phase;
+                
+                if (value > Colour.WHEEL_STEPS)
+                    value -= Colour.WHEEL_STEPS;
+                
+                pixels[i] = Colour.wheel (value);
+            }
             
-            m.show ();
+            frame.show (m);
             
-            phase += 1;
+            phase += 10;
             
-            if (phase == 360)
+            if (phase == Colour.WHEEL_STEPS)
                 phase = 0;
             
-            Thread.sleep (10);
+            if (pacer != null)
+                pacer.sync ();
         }
     }
     
+    /** The default frame rate of the rainbow in Hz. */
+    private static final int RATE = 100;
+    /** The time each pixel is lit for in the scan in milliseconds. */
+    private static final int SCAN_ON = 100;
+    /** The time each pixel is dark for in the scan in milliseconds. */
+    private static final int SCAN_OFF = 25;
     /** The matrix we'll be working on. */
     private final ColourMatrix m;
 }
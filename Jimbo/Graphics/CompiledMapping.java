@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+/**
+ * This class holds a Mapping (or chain of Mappings) flattened into a single
+ * lookup table. Input point (x,y) is held as index x + width * y and the
+ * table gives the equivalent output index. Once built it never changes and
+ * looking something up allocates nothing. It also notes if the mapping is the
+ * identity or a straight reversal so callers can use a bulk copy or a reversed
+ * loop instead of going through the table.
+ *
+ * @author Jim Darby
+ */
+public final class CompiledMapping
+{
+    /**
+     * Build the table by running every possible input point through the
+     * mapping once.
+     *
+     * @param m The Mapping to compile.
+     */
+    public CompiledMapping (Mapping m)
+    {
+        final Point in = m.getOriginalMax ();
+        final Point out = m.getOutMax ();
+
+        IN_WIDTH = in.getX () + 1;
+        IN_HEIGHT = in.getY () + 1;
+        OUT_WIDTH = out.getX () + 1;
+        OUT_HEIGHT = out.getY () + 1;
+
+        table = new int[IN_WIDTH * IN_HEIGHT];
+
+        for (int y = 0; y < IN_HEIGHT; ++y)
+            for (int x = 0; x < IN_WIDTH; ++x)
+            {
+                final Point p = m.map (Point.of (x, y));
+
+                table[x + IN_WIDTH * y] = p.getX () + OUT_WIDTH * p.getY ();
+            }
+
+        description = m.toString ();
+
+        final int last = table.length - 1;
+        final boolean same = IN_WIDTH * IN_HEIGHT == OUT_WIDTH * OUT_HEIGHT;
+        boolean identity = same;
+        boolean reversal = same;
+
+        for (int i = 0; i <= last && (identity || reversal); ++i)
+        {
+            identity &= table[i] == i;
+            reversal &= table[i] == last - i;
+        }
+
+        IDENTITY = identity;
+        REVERSAL = reversal;
+    }
+
+    /**
+     * Map an input point to an output index. The output index is
+     * x + width * y in the output coordinates.
+     *
+     * @param x The input X coordinate.
+     * @param y The input Y coordinate.
+     * @return The output index.
+     */
+    public int mapIndex (int x, int y)
+    {
+        if (x < 0 || x >= IN_WIDTH || y < 0 || y >= IN_HEIGHT)
+            throw new IllegalArgumentException ("Input co-ordinate (" + x + ',' + y + ") outside " + IN_WIDTH + 'x' + IN_HEIGHT);
+
+        return table[x + IN_WIDTH * y];
+    }
+
+    /**
+     * Map an input index (x + width * y) to an output index. This does no
+     * checking beyond that of the array itself so is intended for loops that
+     * have already checked their range.
+     *
+     * @param index The input index.
+     * @return The output index.
+     */
+    public int mapIndex (int index)
+    {
+        return table[index];
+    }
+
+    /**
+     * Does every input index map to the same output index?
+     *
+     * @return If it does.
+     */
+    public boolean isIdentity ()
+    {
+        return IDENTITY;
+    }
+
+    /**
+     * Does every input index i map to output index (size - 1 - i)?
+     *
+     * @return If it does.
+     */
+    public boolean isReversal ()
+    {
+        return REVERSAL;
+    }
+
+    /**
+     * Return the input width.
+     *
+     * @return The input width.
+     */
+    public int getInWidth ()
+    {
+        return IN_WIDTH;
+    }
+
+    /**
+     * Return the input height.
+     *
+     * @return The input height.
+     */
+    public int getInHeight ()
+    {
+        return IN_HEIGHT;
+    }
+
+    /**
+     * Return the output width.
+     *
+     * @return The output width.
+     */
+    public int getOutWidth ()
+    {
+        return OUT_WIDTH;
+    }
+
+    /**
+     * Return the output height.
+     *
+     * @return The output height.
+     */
+    public int getOutHeight ()
+    {
+        return OUT_HEIGHT;
+    }
+
+    /**
+     * Return a printable version of the mapping.
+     *
+     * @return A printable String.
+     */
+    @Override
+    public String toString ()
+    {
+        return "Compiled " + description;
+    }
+
+    /** The input width. */
+    private final int IN_WIDTH;
+    /** The input height. */
+    private final int IN_HEIGHT;
+    /** The output width. */
+    private final int OUT_WIDTH;
+    /** The output height. */
+    private final int OUT_HEIGHT;
+
+    /** Is it the identity? */
+    private final boolean IDENTITY;
+    /** Is it a straight reversal? */
+    private final boolean REVERSAL;
+
+    /** The input index to output index table. */
+    private final int[] table;
+    /** The description of the original mapping. */
+    private final String description;
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class blends a stack of layers into a single frame for a ColourMatrix.
+ * Each layer is itself a ColourMatrix so existing code (and threads) can draw
+ * on their own layer without treading on each other. Layers hold
+ * premultiplied ARGB values and the blending is all integer.
+ *
+ * The matrix is split into 8x8 tiles. Only tiles that have changed are
+ * blended again and within a tile layers that are fully transparent are
+ * skipped and anything under a fully opaque layer is ignored.
+ *
+ * All the layers share the compositor's lock so showing a frame holds up
+ * drawing while it's sent. Using a BufferedMatrix as the target keeps that
+ * short.
+ *
+ * @author Jim Darby
+ */
+public class Compositor
+{
+    /**
+     * Create a compositor for a ColourMatrix. It starts with no layers.
+     *
+     * @param target The matrix to send the blended frames to.
+     */
+    public Compositor (ColourMatrix target)
+    {
+        this.target = target;
+
+        WIDTH = target.getWidth ();
+        HEIGHT = target.getHeight ();
+        TILES_X = (WIDTH + TILE - 1) / TILE;
+        TILES_Y = (HEIGHT + TILE - 1) / TILE;
+
+        frame = new int[WIDTH * HEIGHT];
+        dirty = new boolean[TILES_X * TILES_Y];
+        tile_size = new int[TILES_X * TILES_Y];
+
+        for (int ty = 0; ty < TILES_Y; ++ty)
+            for (int tx = 0; tx < TILES_X; ++tx)
+                tile_size[tx + TILES_X * ty] =
+                        (Math.min (WIDTH, (tx + 1) * TILE) - tx * TILE) *
+                        (Math.min (HEIGHT, (ty + 1) * TILE) - ty * TILE);
+
+        // The first frame always goes out
+        Arrays.fill (dirty, true);
+    }
+
+    /**
+     * Add a new layer on top of the existing ones. It starts fully
+     * transparent.
+     *
+     * @return The new layer.
+     */
+    public synchronized Layer addLayer ()
+    {
+        final Layer l = new Layer ();
+
+        layers.add (l);
+
+        return l;
+    }
+
+    /**
+     * Return the number of layers.
+     *
+     * @return The number of layers.
+     */
+    public synchronized int getLayerCount ()
+    {
+        return layers.size ();
+    }
+
+    /**
+     * Blend the layers and send the result to the target matrix. If no tile
+     * has changed since last time nothing is sent.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public synchronized void show () throws IOException
+    {
+        boolean changed = false;
+
+        for (int t = 0; t < dirty.length; ++t)
+            if (dirty[t])
+            {
+                composite (t);
+                dirty[t] = false;
+                changed = true;
+            }
+
+        if (!changed)
+            return;
+
+        target.setPixels (frame, 0, 0, WIDTH, HEIGHT);
+        target.show ();
+    }
+
+    /**
+     * Return the matrix we're sending to.
+     *
+     * @return The target matrix.
+     */
+    public ColourMatrix getTarget ()
+    {
+        return target;
+    }
+
+    /**
+     * Blend a single tile into the frame.
+     *
+     * @param t The tile number.
+     */
+    private void composite (int t)
+    {
+        final int x0 = (t % TILES_X) * TILE;
+        final int y0 = (t / TILES_X) * TILE;
+        final int x1 = Math.min (WIDTH, x0 + TILE);
+        final int y1 = Math.min (HEIGHT, y0 + TILE);
+
+        // Find the highest layer that covers the whole tile, nothing under
+        // it can be seen.
+        int start = 0;
+
+        for (int i = layers.size () - 1; i >= 0; --i)
+        {
+            final Layer l = layers.get (i);
+
+            if (l.visible && l.opaque[t] == tile_size[t])
+            {
+                start = i;
+                break;
+            }
+        }
+
+        // Start from black
+        for (int y = y0; y < y1; ++y)
+            Arrays.fill (frame, x0 + WIDTH * y, x1 + WIDTH * y, 0);
+
+        for (int i = start; i < layers.size (); ++i)
+        {
+            final Layer l = layers.get (i);
+
+            if (!l.visible || l.covered[t] == 0)
+                continue;
+
+            final int[] src = l.data;
+
+            for (int y = y0; y < y1; ++y)
+                for (int index = x0 + WIDTH * y; index < x1 + WIDTH * y; ++index)
+                    frame[index] = PixelOps.blend (frame[index], src[index]);
+        }
+    }
+
+    /**
+     * This class is one layer in the stack. It can be used as an ordinary
+     * ColourMatrix, in which case everything drawn is opaque, or with alpha
+     * through the setARGB methods. Calling show on a layer shows the whole
+     * compositor.
+     */
+    public final class Layer extends MatrixHelper <Colour> implements ColourMatrix
+    {
+        /**
+         * Construct a fully transparent layer.
+         */
+        private Layer ()
+        {
+            super (Compositor.this.WIDTH, Compositor.this.HEIGHT);
+
+            data = new int[WIDTH * HEIGHT];
+            covered = new int[dirty.length];
+            opaque = new int[dirty.length];
+        }
+
+        /**
+         * Sets a pixel to a specific opaque colour.
+         *
+         * @param x The X coordinate of the pixel.
+         * @param y The Y coordinate of the pixel.
+         * @param r The red value: 0 to 255.
+         * @param g The green value: 0 to 255.
+         * @param b The blue value: 0 to 255.
+         */
+        @Override
+        public void setPixel (int x, int y, int r, int g, int b)
+        {
+            validate (x, y);
+
+            final int value = 0xff000000 | Colour.pack (r, g, b);
+
+            synchronized (Compositor.this)
+            {
+                put (x, y, value);
+            }
+        }
+
+        /**
+         * Sets a pixel to a colour with transparency. The alpha is in the top
+         * byte with 0 fully transparent and 255 fully opaque. The colour
+         * isn't premultiplied, that's done here.
+         *
+         * @param x The X coordinate of the pixel.
+         * @param y The Y coordinate of the pixel.
+         * @param argb The colour in the form 0xAARRGGBB.
+         */
+        public void setARGB (int x, int y, int argb)
+        {
+            validate (x, y);
+
+            final int value = premultiply (argb);
+
+            synchronized (Compositor.this)
+            {
+                put (x, y, value);
+            }
+        }
+
+        /**
+         * Sets a rectangle of pixels to opaque packed 0xRRGGBB values.
+         *
+         * @param rgb The packed pixel data.
+         * @param x The X coordinate of the bottom left of the rectangle.
+         * @param y The Y coordinate of the bottom left of the rectangle.
+         * @param w The width of the rectangle.
+         * @param h The height of the rectangle.
+         */
+        @Override
+        public void setPixels (int[] rgb, int x, int y, int w, int h)
+        {
+            validateArea (rgb.length, x, y, w, h);
+
+            synchronized (Compositor.this)
+            {
+                for (int j = 0; j < h; ++j)
+                    for (int i = 0; i < w; ++i)
+                        put (x + i, y + j, 0xff000000 | rgb[i + w * j]);
+            }
+        }
+
+        /**
+         * Sets a rectangle of pixels to colours with transparency. Each value
+         * is of the form 0xAARRGGBB and not premultiplied.
+         *
+         * @param argb The pixel data.
+         * @param x The X coordinate of the bottom left of the rectangle.
+         * @param y The Y coordinate of the bottom left of the rectangle.
+         * @param w The width of the rectangle.
+         * @param h The height of the rectangle.
+         */
+        public void setARGB (int[] argb, int x, int y, int w, int h)
+        {
+            validateArea (argb.length, x, y, w, h);
+
+            synchronized (Compositor.this)
+            {
+                for (int j = 0; j < h; ++j)
+                    for (int i = 0; i < w; ++i)
+                        put (x + i, y + j, premultiply (argb[i + w * j]));
+            }
+        }
+
+        /**
+         * Set every pixel in the layer to the same opaque colour.
+         *
+         * @param rgb The colour in the form 0xRRGGBB.
+         */
+        @Override
+        public void fill (int rgb)
+        {
+            final int value = 0xff000000 | rgb;
+
+            synchronized (Compositor.this)
+            {
+                for (int y = 0; y < HEIGHT; ++y)
+                    for (int x = 0; x < WIDTH; ++x)
+                        put (x, y, value);
+            }
+        }
+
+        /**
+         * Make a pixel fully transparent.
+         *
+         * @param p The pixel to clear.
+         */
+        @Override
+        public void clearPixel (Point p)
+        {
+            setARGB (p.getX (), p.getY (), 0);
+        }
+
+        /**
+         * Make the whole layer fully transparent.
+         */
+        public void clear ()
+        {
+            synchronized (Compositor.this)
+            {
+                for (int y = 0; y < HEIGHT; ++y)
+                    for (int x = 0; x < WIDTH; ++x)
+                        put (x, y, 0);
+            }
+        }
+
+        /**
+         * Show or hide the whole layer.
+         *
+         * @param visible If the layer should be seen.
+         */
+        public void setVisible (boolean visible)
+        {
+            synchronized (Compositor.this)
+            {
+                if (this.visible != visible)
+                {
+                    this.visible = visible;
+                    Arrays.fill (dirty, true);
+                }
+            }
+        }
+
+        /**
+         * Is the layer visible?
+         *
+         * @return If the layer is visible.
+         */
+        public boolean isVisible ()
+        {
+            synchronized (Compositor.this)
+            {
+                return visible;
+            }
+        }
+
+        /**
+         * Show the frame. This blends all the layers, not just this one.
+         *
+         * @throws IOException In case of trouble.
+         */
+        @Override
+        public void show () throws IOException
+        {
+            Compositor.this.show ();
+        }
+
+        /**
+         * Check a pixel is on the layer.
+         *
+         * @param x The X coordinate of the pixel.
+         * @param y The Y coordinate of the pixel.
+         */
+        private void validate (int x, int y)
+        {
+            if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+                throw new IllegalArgumentException ("Invalid coordinates (" + x + ',' + y + ')');
+        }
+
+        /**
+         * Store a premultiplied value. If it changes the tile is marked dirty
+         * and the tile's coverage counts are kept up to date. Must be called
+         * holding the compositor's lock.
+         *
+         * @param x The X coordinate of the pixel.
+         * @param y The Y coordinate of the pixel.
+         * @param value The premultiplied ARGB value.
+         */
+        private void put (int x, int y, int value)
+        {
+            final int index = x + WIDTH * y;
+            final int old = data[index];
+
+            if (old == value)
+                return;
+
+            data[index] = value;
+
+            final int t = x / TILE + TILES_X * (y / TILE);
+            final int old_a = old >>> 24;
+            final int new_a = value >>> 24;
+
+            if (old_a == 0)
+                ++covered[t];
+
+            if (new_a == 0)
+                --covered[t];
+
+            if (old_a == 0xff)
+                --opaque[t];
+
+            if (new_a == 0xff)
+                ++opaque[t];
+
+            dirty[t] = true;
+        }
+
+        /** The premultiplied ARGB pixels. */
+        private final int[] data;
+        /** The number of pixels in each tile that aren't fully transparent. */
+        private final int[] covered;
+        /** The number of pixels in each tile that are fully opaque. */
+        private final int[] opaque;
+        /** Is the layer visible? */
+        private boolean visible = true;
+    }
+
+    /**
+     * Premultiply a colour by its alpha.
+     *
+     * @param argb The colour in the form 0xAARRGGBB.
+     * @return The premultiplied colour.
+     */
+    private static int premultiply (int argb)
+    {
+        final int a = argb >>> 24;
+
+        if (a == 0)
+            return 0;
+
+        if (a == 0xff)
+            return argb;
+
+        return (a << 24) | PixelOps.scale (argb, a);
+    }
+
+    /** The size of a tile. */
+    public static final int TILE = 8;
+
+    /** The width of the matrix. */
+    public final int WIDTH;
+    /** The height of the matrix. */
+    public final int HEIGHT;
+    /** The number of tiles across. */
+    private final int TILES_X;
+    /** The number of tiles up. */
+    private final int TILES_Y;
+
+    /** The matrix we send to. */
+    private final ColourMatrix target;
+    /** The layers, bottom first. */
+    private final List <Layer> layers = new ArrayList <> ();
+    /** The blended frame. */
+    private final int[] frame;
+    /** Which tiles need blending again. */
+    private final boolean[] dirty;
+    /** The number of pixels in each tile. */
+    private final int[] tile_size;
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * This class shows several displays at once. Displays are grouped by the bus
+ * they're on (SPI, I2C, PWM, a serial port and so on). Each bus gets its own
+ * worker thread and show () releases them all together and waits at a
+ * barrier until every bus is done, so a frame takes as long as the slowest
+ * bus rather than the sum of them all. Displays on the same bus are shown
+ * one after another by that bus's worker. The time each bus takes is
+ * recorded.
+ *
+ * @author Jim Darby
+ */
+public class DisplayGroup implements AutoCloseable
+{
+    /**
+     * Anything that can be shown. Matrix.show fits, as does the update
+     * method of devices that aren't matrices.
+     */
+    @FunctionalInterface
+    public interface Display
+    {
+        /**
+         * Send the current frame to the hardware.
+         *
+         * @throws IOException In case of trouble.
+         */
+        public void show () throws IOException;
+    }
+
+    /**
+     * Add a matrix on a given bus.
+     *
+     * @param bus Anything that identifies the bus, usually its name.
+     * @param m The matrix.
+     */
+    public void add (Object bus, Matrix <?> m)
+    {
+        add (bus, m::show);
+    }
+
+    /**
+     * Add a display on a given bus.
+     *
+     * @param bus Anything that identifies the bus, usually its name.
+     * @param d The display.
+     */
+    public synchronized void add (Object bus, Display d)
+    {
+        // The workers are started for a fixed set of buses so stop them and
+        // they'll be started again on the next show.
+        stop ();
+
+        Bus b = buses.get (bus);
+
+        if (b == null)
+        {
+            b = new Bus (bus);
+            buses.put (bus, b);
+        }
+
+        b.displays.add (d);
+    }
+
+    /**
+     * Show every display, each bus in parallel, and wait for them all.
+     *
+     * @throws IOException If any of them has trouble. The first error is
+     * thrown once all the buses have finished. Unchecked exceptions and
+     * errors from a display are thrown as they are.
+     */
+    public synchronized void show () throws IOException
+    {
+        final long start = System.nanoTime ();
+
+        if (buses.size () == 1)
+        {
+            buses.values ().iterator ().next ().run ();
+        }
+        else if (buses.size () > 1)
+        {
+            if (workers == null)
+                begin ();
+
+            try
+            {
+                go.await ();
+                done.await ();
+            }
+
+            catch (InterruptedException e)
+            {
+                Thread.currentThread ().interrupt ();
+                stop ();
+                throw new IOException ("Interrupted showing displays");
+            }
+
+            catch (BrokenBarrierException e)
+            {
+                stop ();
+                throw new IOException ("Display worker failed");
+            }
+        }
+
+        last_frame = System.nanoTime () - start;
+        total_frame += last_frame;
+        ++frames;
+
+        for (Bus b : buses.values ())
+            if (b.error != null)
+            {
+                final Throwable e = b.error;
+
+                for (Bus c : buses.values ())
+                    c.error = null;
+
+                if (e instanceof IOException)
+                    throw (IOException) e;
+
+                if (e instanceof RuntimeException)
+                    throw (RuntimeException) e;
+
+                throw (Error) e;
+            }
+    }
+
+    /**
+     * Return the time the last show took overall.
+     *
+     * @return The time in nanoseconds.
+     */
+    public synchronized long getLastFrameTime ()
+    {
+        return last_frame;
+    }
+
+    /**
+     * Return the average time a show has taken overall.
+     *
+     * @return The time in nanoseconds.
+     */
+    public synchronized double getAverageFrameTime ()
+    {
+        return (frames == 0) ? 0 : (double) total_frame / frames;
+    }
+
+    /**
+     * Return the time a bus took in the last show.
+     *
+     * @param bus The bus.
+     * @return The time in nanoseconds.
+     */
+    public synchronized long getLastTime (Object bus)
+    {
+        return getBus (bus).last;
+    }
+
+    /**
+     * Return the average time a bus has taken to show.
+     *
+     * @param bus The bus.
+     * @return The time in nanoseconds.
+     */
+    public synchronized double getAverageTime (Object bus)
+    {
+        final Bus b = getBus (bus);
+
+        return (b.shows == 0) ? 0 : (double) b.total / b.shows;
+    }
+
+    /**
+     * Return the longest time a bus has taken to show.
+     *
+     * @param bus The bus.
+     * @return The time in nanoseconds.
+     */
+    public synchronized long getMaxTime (Object bus)
+    {
+        return getBus (bus).max;
+    }
+
+    /**
+     * Return a summary of the timings.
+     *
+     * @return The summary.
+     */
+    @Override
+    public synchronized String toString ()
+    {
+        final StringBuilder s = new StringBuilder ();
+
+        s.append (String.format ("Frame avg %.1f us", getAverageFrameTime () / 1000));
+
+        for (Bus b : buses.values ())
+            s.append (String.format ("; %s avg %.1f us max %.1f us",
+                    b.name, (b.shows == 0) ? 0.0 : (double) b.total / b.shows / 1000, b.max / 1000.0));
+
+        return s.toString ();
+    }
+
+    /**
+     * Stop the worker threads. They're started again if show is called.
+     */
+    @Override
+    public synchronized void close ()
+    {
+        stop ();
+    }
+
+    /**
+     * Look up a bus.
+     *
+     * @param bus The bus.
+     * @return The Bus.
+     */
+    private Bus getBus (Object bus)
+    {
+        final Bus b = buses.get (bus);
+
+        if (b == null)
+            throw new IllegalArgumentException ("Unknown bus " + bus);
+
+        return b;
+    }
+
+    /**
+     * Start a worker thread for each bus.
+     */
+    private void begin ()
+    {
+        final int parties = buses.size () + 1;
+
+        go = new CyclicBarrier (parties);
+        done = new CyclicBarrier (parties);
+        stopping = false;
+        workers = new ArrayList <> (buses.size ());
+
+        for (Bus b : buses.values ())
+        {
+            final CyclicBarrier my_go = go;
+            final CyclicBarrier my_done = done;
+            final Thread t = new Thread (() -> worker (b, my_go, my_done), "DisplayGroup " + b.name);
+
+            t.setDaemon (true);
+            t.start ();
+            workers.add (t);
+        }
+    }
+
+    /**
+     * Stop the worker threads, if there are any.
+     */
+    private void stop ()
+    {
+        if (workers == null)
+            return;
+
+        stopping = true;
+
+        for (Thread t : workers)
+            t.interrupt ();
+
+        go.reset ();
+        done.reset ();
+        workers = null;
+    }
+
+    /**
+     * The worker for a bus. It waits to be told to go, shows its displays
+     * and waits for the others to finish.
+     *
+     * @param b The bus.
+     * @param go The barrier to wait on to start.
+     * @param done The barrier to wait on when finished.
+     */
+    private void worker (Bus b, CyclicBarrier go, CyclicBarrier done)
+    {
+        try
+        {
+            while (!stopping)
+            {
+                go.await ();
+
+                // Always get to the done barrier, whatever the display does,
+                // or show would wait for us for ever.
+                try
+                {
+                    b.run ();
+                }
+
+                finally
+                {
+                    done.await ();
+                }
+            }
+        }
+
+        catch (InterruptedException | BrokenBarrierException e)
+        {
+            // We've been stopped.
+        }
+    }
+
+    /**
+     * This class holds the displays on one bus and its timings.
+     */
+    private static final class Bus
+    {
+        /**
+         * Create an empty bus.
+         *
+         * @param name What identifies it.
+         */
+        Bus (Object name)
+        {
+            this.name = name;
+        }
+
+        /**
+         * Show all the displays on the bus, recording the time and any error.
+         */
+        void run ()
+        {
+            final long start = System.nanoTime ();
+
+            try
+            {
+                for (Display d : displays)
+                    d.show ();
+            }
+
+            catch (IOException | RuntimeException | Error e)
+            {
+                error = e;
+            }
+
+            last = System.nanoTime () - start;
+            total += last;
+            ++shows;
+
+            if (last > max)
+                max = last;
+        }
+
+        /** What identifies the bus. */
+        final Object name;
+        /** The displays on it. */
+        final List <Display> displays = new ArrayList <> ();
+        /** The error from the last show or null. */
+        Throwable error = null;
+        /** The time of the last show. */
+        long last = 0;
+        /** The total time of all the shows. */
+        long total = 0;
+        /** The longest show. */
+        long max = 0;
+        /** The number of shows. */
+        long shows = 0;
+    }
+
+    /** The buses in the order they were added. */
+    private final Map <Object, Bus> buses = new LinkedHashMap <> ();
+    /** The worker threads, or null if they're not running. */
+    private List <Thread> workers = null;
+    /** The barrier the workers start a frame on. */
+    private CyclicBarrier go;
+    /** The barrier everyone meets at when a frame is done. */
+    private CyclicBarrier done;
+    /** Are the workers being stopped? */
+    private volatile boolean stopping = false;
+    /** The time of the last show. */
+    private long last_frame = 0;
+    /** The total time of all the shows. */
+    private long total_frame = 0;
+    /** The number of shows. */
+    private long frames = 0;
+}
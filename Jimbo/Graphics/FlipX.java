@@ -37,7 +37,7 @@ public class FlipX extends Mapping
      */
     public FlipX (int width, int height)
     {
-	super (new Point (width - 1, height - 1));
+	super (Point.of (width - 1, height - 1));
     }
 
     /**
@@ -67,7 +67,7 @@ public class FlipX extends Mapping
 	
 	validateIn (p);
 
-	final Point result = new Point (getInMax ().getX () - p.getX (), p.getY ());
+	final Point result = Point.of (getInMax ().getX () - p.getX (), p.getY ());
 
 	validateOut (result);
 	
@@ -37,7 +37,7 @@ public class FlipY extends Mapping
      */
     public FlipY (int width, int height)
     {
-	super (new Point (width - 1, height - 1));
+	super (Point.of (width - 1, height - 1));
     }
 
     /**
@@ -67,7 +67,7 @@ public class FlipY extends Mapping
 	
 	validateIn (p);
 
-	final Point result = new Point (p.getX (), getInMax ().getY () - p.getY ());
+	final Point result = Point.of (p.getX (), getInMax ().getY () - p.getY ());
 
 	validateOut (result);
 	
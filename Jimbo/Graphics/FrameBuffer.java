@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class holds a frame of RGB pixels as packed integers of the form
+ * 0xRRGGBB. Pixel (x,y) lives at index x + width * y so a whole frame can be
+ * handed to a ColourMatrix in a single setPixels call rather than one call
+ * per pixel.
+ *
+ * @author Jim Darby
+ */
+public class FrameBuffer
+{
+    /**
+     * Create a frame buffer of a given size. All the pixels start off black.
+     *
+     * @param width The width in pixels.
+     * @param height The height in pixels.
+     */
+    public FrameBuffer (int width, int height)
+    {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException ("Invalid FrameBuffer size " + width + 'x' + height);
+
+        WIDTH = width;
+        HEIGHT = height;
+        data = new int[width * height];
+    }
+
+    /**
+     * Create a frame buffer the same size as a given Matrix.
+     *
+     * @param m The Matrix to size it from.
+     */
+    public FrameBuffer (Matrix <?> m)
+    {
+        this (m.getWidth (), m.getHeight ());
+    }
+
+    /**
+     * Return the width of this frame.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth ()
+    {
+        return WIDTH;
+    }
+
+    /**
+     * Return the height of this frame.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight ()
+    {
+        return HEIGHT;
+    }
+
+    /**
+     * Return the underlying data. This is deliberately not a copy so that
+     * code that wants to go really fast can write to it directly.
+     *
+     * @return The packed 0xRRGGBB pixel data.
+     */
+    public int[] getData ()
+    {
+        return data;
+    }
+
+    /**
+     * Set a pixel to a packed colour.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    public void setPixel (int x, int y, int rgb)
+    {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT)
+            throw new IllegalArgumentException ("Invalid coordinates for setPixel");
+
+        data[x + WIDTH * y] = rgb & 0xffffff;
+    }
+
+    /**
+     * Set a pixel to a specific red, green and blue value.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param r The red value: 0 to 255.
+     * @param g The green value: 0 to 255.
+     * @param b The blue value: 0 to 255.
+     */
+    public void setPixel (int x, int y, int r, int g, int b)
+    {
+        if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255)
+            throw new IllegalArgumentException ("Invalid colour for setPixel");
+
+        setPixel (x, y, (r << 16) | (g << 8) | b);
+    }
+
+    /**
+     * Return the packed colour of a pixel.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @return The colour in the form 0xRRGGBB.
+     */
+    public int getPixel (int x, int y)
+    {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT)
+            throw new IllegalArgumentException ("Invalid coordinates for getPixel");
+
+        return data[x + WIDTH * y];
+    }
+
+    /**
+     * Set every pixel to the same packed colour.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    public void fill (int rgb)
+    {
+        Arrays.fill (data, rgb & 0xffffff);
+    }
+
+    /**
+     * Copy the whole frame to a ColourMatrix, placing our (0,0) at the given
+     * location. The matrix is not updated, call show on it for that.
+     *
+     * @param m The ColourMatrix to copy to.
+     * @param x The X coordinate to place our origin at.
+     * @param y The Y coordinate to place our origin at.
+     */
+    public void copyTo (ColourMatrix m, int x, int y)
+    {
+        m.setPixels (data, x, y, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Copy the frame to a ColourMatrix and then show it.
+     *
+     * @param m The ColourMatrix to show it on.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void show (ColourMatrix m) throws IOException
+    {
+        copyTo (m, 0, 0);
+        m.show ();
+    }
+
+    /** The width of the frame. */
+    public final int WIDTH;
+    /** The height of the frame. */
+    public final int HEIGHT;
+
+    /** The packed pixel data. */
+    private final int[] data;
+}
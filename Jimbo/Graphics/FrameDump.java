@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes frames into a memory mapped file in one of the simple
+ * Netpbm formats (PPM, PGM or PBM). The header is written once and each frame
+ * overwrites the previous one in place so the file always holds the latest
+ * frame and writing it is just a memory copy.
+ *
+ * @author Jim Darby
+ */
+public class FrameDump implements Closeable
+{
+    /**
+     * Create the file and map it.
+     *
+     * @param path Where to put the file.
+     * @param magic The Netpbm magic: "P4", "P5" or "P6".
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param payload The number of bytes in a frame.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public FrameDump (Path path, String magic, int width, int height, int payload) throws IOException
+    {
+        final String header = magic + '\n' + width + ' ' + height + '\n' + (magic.equals ("P4") ? "" : "255\n");
+        final byte[] h = header.getBytes (StandardCharsets.US_ASCII);
+
+        channel = FileChannel.open (path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = channel.map (FileChannel.MapMode.READ_WRITE, 0, h.length + payload);
+        buffer.put (h);
+
+        base = h.length;
+        this.payload = payload;
+    }
+
+    /**
+     * Write a frame, replacing the last one.
+     *
+     * @param data The frame data. It must be the size given when the dump
+     * was created.
+     */
+    public void write (byte[] data)
+    {
+        if (data.length != payload)
+            throw new IllegalArgumentException ("Frame of " + data.length + " bytes, expected " + payload);
+
+        buffer.position (base);
+        buffer.put (data);
+    }
+
+    /**
+     * Make sure everything is on disc and close the file.
+     *
+     * @throws IOException In case of trouble.
+     */
+    @Override
+    public void close () throws IOException
+    {
+        buffer.force ();
+        channel.close ();
+    }
+
+    /** The file. */
+    private final FileChannel channel;
+    /** The mapping of the file. */
+    private final MappedByteBuffer buffer;
+    /** Where the frame starts after the header. */
+    private final int base;
+    /** The size of a frame. */
+    private final int payload;
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class paces a render loop at a fixed frame rate. Rather than sleeping
+ * for a fixed time after each frame, which makes the rate depend on how long
+ * rendering and the bus took, it works out absolute deadlines from
+ * System.nanoTime and waits until each one. A loop looks like:
+ *
+ * <pre>
+ * final FramePacer pacer = new FramePacer (60);
+ *
+ * while (true)
+ * {
+ *     draw ();
+ *     m.show ();
+ *     pacer.sync ();
+ * }
+ * </pre>
+ *
+ * When a frame takes longer than the period the policy decides what happens.
+ * It also keeps statistics on the achieved rate, jitter and overruns.
+ *
+ * @author Jim Darby
+ */
+public class FramePacer
+{
+    /**
+     * What to do when a frame overruns its deadline.
+     */
+    public enum Policy
+    {
+        /**
+         * Keep the original schedule and run the late frames back to back
+         * until it's caught up. Good when the number of frames matters, such
+         * as an animation that must take a fixed number of steps.
+         */
+        CATCH_UP,
+        /**
+         * Skip the deadlines that have been missed and carry on from the next
+         * one. Good when what matters is the frames being evenly spaced.
+         */
+        DROP
+    }
+
+    /**
+     * Create a pacer that drops missed frames.
+     *
+     * @param rate The frame rate in Hz.
+     */
+    public FramePacer (double rate)
+    {
+        this (rate, Policy.DROP);
+    }
+
+    /**
+     * Create a pacer.
+     *
+     * @param rate The frame rate in Hz.
+     * @param policy What to do about overruns.
+     */
+    public FramePacer (double rate, Policy policy)
+    {
+        if (!(rate > 0) || rate > NANOS_PER_SECOND)
+            throw new IllegalArgumentException ("Invalid frame rate " + rate);
+
+        PERIOD = Math.round (NANOS_PER_SECOND / rate);
+        POLICY = policy;
+    }
+
+    /**
+     * Wait until the next frame is due. The first call starts the schedule
+     * and waits a single period.
+     *
+     * @return The number of frames dropped to get back on schedule, which is
+     * zero unless the policy is DROP and we were late.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public int sync () throws InterruptedException
+    {
+        long now = System.nanoTime ();
+
+        if (!started)
+        {
+            started = true;
+            start = now;
+            deadline = now + PERIOD;
+            last = now;
+        }
+        else
+        {
+            deadline += PERIOD;
+        }
+
+        int missed = 0;
+
+        if (now - deadline > 0)
+        {
+            ++overruns;
+
+            if (POLICY == Policy.DROP)
+            {
+                // Move on to the first deadline still in the future.
+                final long behind = (now - deadline) / PERIOD + 1;
+
+                deadline += behind * PERIOD;
+                missed = (int) Math.min (behind, Integer.MAX_VALUE);
+                dropped += behind;
+            }
+        }
+
+        while ((now = System.nanoTime ()) - deadline < 0)
+        {
+            LockSupport.parkNanos (deadline - now);
+
+            if (Thread.interrupted ())
+                throw new InterruptedException ();
+        }
+
+        // Lateness is how long after the deadline we actually woke. When
+        // catching up it includes the time still owed.
+        final long late = now - deadline;
+
+        total_late += late;
+
+        if (late > max_late)
+            max_late = late;
+
+        // Running mean and variance of the interval between frames.
+        final double interval = now - last;
+        final double delta = interval - mean;
+
+        ++frames;
+        mean += delta / frames;
+        m2 += delta * (interval - mean);
+        last = now;
+
+        return missed;
+    }
+
+    /**
+     * Forget the statistics and the schedule. The next sync starts again.
+     */
+    public void reset ()
+    {
+        started = false;
+        frames = 0;
+        overruns = 0;
+        dropped = 0;
+        total_late = 0;
+        max_late = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+    /**
+     * Return the frame period.
+     *
+     * @return The period in nanoseconds.
+     */
+    public long getPeriod ()
+    {
+        return PERIOD;
+    }
+
+    /**
+     * Return the policy for overruns.
+     *
+     * @return The policy.
+     */
+    public Policy getPolicy ()
+    {
+        return POLICY;
+    }
+
+    /**
+     * Return the number of frames since the start.
+     *
+     * @return The number of frames.
+     */
+    public long getFrames ()
+    {
+        return frames;
+    }
+
+    /**
+     * Return the number of frames that missed their deadline.
+     *
+     * @return The number of overruns.
+     */
+    public long getOverruns ()
+    {
+        return overruns;
+    }
+
+    /**
+     * Return the number of deadlines skipped by the DROP policy.
+     *
+     * @return The number of frames dropped.
+     */
+    public long getDropped ()
+    {
+        return dropped;
+    }
+
+    /**
+     * Return the achieved frame rate since the start.
+     *
+     * @return The rate in Hz or zero if there have been no frames.
+     */
+    public double getFPS ()
+    {
+        if (frames == 0)
+            return 0;
+
+        return frames * NANOS_PER_SECOND / (last - start);
+    }
+
+    /**
+     * Return the jitter, the standard deviation of the time between frames.
+     *
+     * @return The jitter in nanoseconds.
+     */
+    public double getJitter ()
+    {
+        return (frames > 1) ? Math.sqrt (m2 / (frames - 1)) : 0;
+    }
+
+    /**
+     * Return the average time we woke up after the deadline.
+     *
+     * @return The average lateness in nanoseconds.
+     */
+    public double getAverageLateness ()
+    {
+        return (frames > 0) ? (double) total_late / frames : 0;
+    }
+
+    /**
+     * Return the worst time we woke up after the deadline.
+     *
+     * @return The maximum lateness in nanoseconds.
+     */
+    public long getMaxLateness ()
+    {
+        return max_late;
+    }
+
+    /**
+     * Return a summary of the statistics.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format ("%.2f fps (target %.2f), jitter %.1f us, late avg %.1f us max %.1f us, %d overruns, %d dropped",
+                getFPS (), NANOS_PER_SECOND / PERIOD, getJitter () / 1000,
+                getAverageLateness () / 1000, max_late / 1000.0, overruns, dropped);
+    }
+
+    /** The frame period in nanoseconds. */
+    private final long PERIOD;
+    /** What we do about overruns. */
+    private final Policy POLICY;
+    /** Has the schedule started? */
+    private boolean started = false;
+    /** When the schedule started. */
+    private long start;
+    /** When the current frame is due. */
+    private long deadline;
+    /** When the last frame was released. */
+    private long last;
+    /** The number of frames. */
+    private long frames = 0;
+    /** The number of frames that missed their deadline. */
+    private long overruns = 0;
+    /** The number of deadlines skipped. */
+    private long dropped = 0;
+    /** The total lateness in nanoseconds. */
+    private long total_late = 0;
+    /** The worst lateness in nanoseconds. */
+    private long max_late = 0;
+    /** The mean interval between frames in nanoseconds. */
+    private double mean = 0;
+    /** The sum of squared differences from the mean interval. */
+    private double m2 = 0;
+
+    /** Nanoseconds in a second. */
+    private static final double NANOS_PER_SECOND = 1e9;
+}
@@ -37,7 +37,7 @@ public class Identity extends Mapping
      */
     public Identity (int width, int height)
     {
-	super (new Point (width - 1, height - 1));
+	super (Point.of (width - 1, height - 1));
     }
 
     /**
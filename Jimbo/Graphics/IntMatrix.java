@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+/**
+ * This interface describes a matrix of single intensity levels using only
+ * primitive types so nothing gets boxed. Levels are 0 to 255 and there is also
+ * a 16 bit fixed point version, 0 to 65535, for code that wants to keep more
+ * precision until the last moment.
+ *
+ * @author Jim Darby
+ */
+public interface IntMatrix extends Matrix <Integer>
+{
+    /**
+     * Sets a pixel to a specific value. This should be the fastest
+     * implementation.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @param value The value to set in the range 0 to 255.
+     */
+    abstract public void setPixel (int x, int y, int value);
+
+    /**
+     * Sets a pixel to a 16 bit fixed point intensity. This is rounded to the
+     * nearest 0 to 255 level.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @param level The intensity in the range 0 to 65535.
+     */
+    default public void setPixelFixed (int x, int y, int level)
+    {
+        if (level < 0 || level > MAX_FIXED)
+            throw new IllegalArgumentException ("Invalid fixed point level " + level);
+
+        setPixel (x, y, (level + 128) / 257);
+    }
+
+    /**
+     * Sets a rectangle of pixels from unsigned byte levels. The data is held
+     * a row at a time with levels[i + w * j] going to pixel (x + i, y + j).
+     * This version just calls the abstract method for each pixel, drivers
+     * that can do better should override it.
+     *
+     * @param levels The levels, treated as unsigned. It must hold at least
+     * w * h values.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    default public void setPixels (byte[] levels, int x, int y, int w, int h)
+    {
+        if (w < 0 || h < 0 || levels.length < w * h)
+            throw new IllegalArgumentException ("Invalid data for setPixels");
+
+        for (int j = 0; j < h; ++j)
+            for (int i = 0; i < w; ++i)
+                setPixel (x + i, y + j, levels[i + w * j] & 0xff);
+    }
+
+    /**
+     * Sets a rectangle of pixels from 16 bit fixed point intensities. The
+     * layout is the same as for the byte version.
+     *
+     * @param levels The intensities in the range 0 to 65535. It must hold at
+     * least w * h values.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    default public void setPixelsFixed (int[] levels, int x, int y, int w, int h)
+    {
+        if (w < 0 || h < 0 || levels.length < w * h)
+            throw new IllegalArgumentException ("Invalid data for setPixelsFixed");
+
+        for (int j = 0; j < h; ++j)
+            for (int i = 0; i < w; ++i)
+                setPixelFixed (x + i, y + j, levels[i + w * j]);
+    }
+
+    /** The largest fixed point intensity. */
+    static final int MAX_FIXED = 0xffff;
+}
@@ -130,7 +130,19 @@ public abstract class Mapping
      * @return The mapped value.
      */
     abstract public Point map (Point p);
-    
+
+    /**
+     * Flatten this mapping, including any previous mappings, into a single
+     * lookup table. Use this on hot paths rather than calling map for each
+     * pixel.
+     *
+     * @return The compiled version of the mapping.
+     */
+    public CompiledMapping compile ()
+    {
+	return new CompiledMapping (this);
+    }
+
     /**
      * Return a printable version of the mapping.
      * 
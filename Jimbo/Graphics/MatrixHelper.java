@@ -35,11 +35,16 @@ public abstract class MatrixHelper <T> implements Matrix <T>
      */
     public MatrixHelper (int width, int height)
     {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException ("Invalid matrix size " + width + 'x' + height);
+        
         WIDTH = width;
         HEIGHT = height;
         MAX_X = WIDTH - 1;
         MAX_Y = HEIGHT - 1;
-        MAX = new Point (MAX_X, MAX_Y);
+        MAX = Point.of (MAX_X, MAX_Y);
+        
+        Point.reserve (WIDTH, HEIGHT);
     }
     
     /**
@@ -75,7 +80,27 @@ public abstract class MatrixHelper <T> implements Matrix <T>
     {
         return MAX;
     }
-    
+
+    /**
+     * Validate a rectangular area for a bulk operation. The whole rectangle
+     * must be inside the matrix and the data must be large enough to cover
+     * it. This lets the bulk operations check once rather than per pixel.
+     *
+     * @param length The length of the data supplied.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    protected void validateArea (int length, int x, int y, int w, int h)
+    {
+        if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > WIDTH || y + h > HEIGHT)
+            throw new IllegalArgumentException ("Invalid area " + w + 'x' + h + " at (" + x + ',' + y + ')');
+
+        if (length < w * h)
+            throw new IllegalArgumentException ("Insufficient data for area " + w + 'x' + h);
+    }
+
     /** The width of the board. */
     public final int WIDTH;
     /** The height of the board. */
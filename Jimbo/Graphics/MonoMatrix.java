@@ -20,24 +20,15 @@ package Jimbo.Graphics;
 
 /**
  * This interface describes a matrix of monochrome Pixels. All implementations
- * must provide an implementation of the abstract method. This interface also
- * provides default methods for mapping the generic methods into the abstract
- * fast one.
+ * must provide an implementation of the abstract method from IntMatrix. This
+ * interface also provides default methods for mapping the generic methods
+ * into the abstract fast one. Code that cares about speed should stick to the
+ * primitive IntMatrix methods and avoid the boxed ones.
  * 
  * @author Jim Darby
  */
-public interface MonoMatrix extends Matrix <Integer>
+public interface MonoMatrix extends IntMatrix
 {
-    /**
-     * Sets a pixel to a specific value. This should be the fastest
-     * implementation.
-     * 
-     * @param x The X coordinate of the pixel.
-     * @param y The Y coordinate of the pixel.
-     * @param value The value to set in the range 0 to 255.
-     */
-    abstract public void setPixel (int x, int y, int value);
-    
     /**
      * Sets a pixel to a specific value. The allows a double as the value to
      * make it easier to think in the 0 to 1 range for luminosity.
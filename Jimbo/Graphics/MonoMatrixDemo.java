@@ -28,50 +28,90 @@ import java.io.IOException;
 public class MonoMatrixDemo
 {
     /**
-     * Run the demo given a ColourMatrix.
+     * Run the demo given a MonoMatrix, for ever.
      * 
-     * @param m The ColourMatrix to use.
+     * @param m The MonoMatrix to use.
      * 
      * @throws InterruptedException In case of thread badness.
      * @throws java.io.IOException In case of trouble.
      */
     public static void run (MonoMatrix m) throws InterruptedException, IOException
     {
+        run (m, RATE, 0);
+    }
+    
+    /**
+     * Run the demo given a MonoMatrix with the wave at a given rate for a
+     * given number of frames. With a rate of zero nothing waits, not even
+     * the initial scan, so it runs as fast as the matrix can be updated,
+     * which is useful for benchmarking.
+     * 
+     * @param m The MonoMatrix to use.
+     * @param rate The frame rate of the wave in Hz, or zero for unpaced.
+     * @param frames The number of wave frames to show, or zero for ever.
+     * 
+     * @throws InterruptedException In case of thread badness.
+     * @throws java.io.IOException In case of trouble.
+     */
+    public static void run (MonoMatrix m, double rate, long frames) throws InterruptedException, IOException
+    {
+        if (rate < 0)
+            throw new IllegalArgumentException ("Invalid rate " + rate);
+        
+        if (frames < 0)
+            throw new IllegalArgumentException ("Invalid frame count " + frames);
+        
         final Point limits = m.getMax ();
         final int max_x = limits.getX ();
         final int max_y = limits.getY ();
-        final Double on = 1.0;
-        final Double off = 0.0;
         final Clock <Integer> clock = Clock.isClockable(m) ? new Clock <> (m) : null;
 
         for (int y = 0; y <= max_y; ++y)
             for (int x = 0; x <= max_x; ++x)
             {
-                final Point p = new Point (x, y);
-                m.setPixel (p, on);
+                m.setPixel (x, y, ON);
                 m.show ();
-                Thread.sleep (50);
-                m.setPixel (p, off);
+                
+                if (rate > 0)
+                    Thread.sleep (SCAN_DELAY);
+                
+                m.setPixel (x, y, OFF);
                 m.show ();
             }
         
+        // Work out where each pixel is in the wave once. Each frame is then
+        // a table lookup per pixel and a single bulk update.
+        
+        final int width = max_x + 1;
+        final int height = max_y + 1;
         final double max_distance = Math.sqrt (max_x * max_x + max_y * max_y);
+        final int[] base = new int[width * height];
+        final byte[] levels = new byte[width * height];
+        final byte[] wave = new byte[WAVE_STEPS];
+        
+        for (int i = 0; i < WAVE_STEPS; ++i)
+            wave[i] = (byte) (255 * (0.5 + 0.5 * Math.sin (i * 2 * Math.PI / WAVE_STEPS)) + 0.5);
         
+        for (int y = 0; y <= max_y; ++y)
+            for (int x = 0; x <= max_x; ++x)
+            {
+                final double distance = Math.sqrt (x*x + y*y);
+                final double fraction = 1 - distance / max_distance;
+                
+                base[x + width * y] = (int) (fraction * WAVE_STEPS);
+            }
+        
+        final FramePacer pacer = (rate > 0) ? new FramePacer (rate) : null;
         int phase = 0;
                 
-        while (true)
+        for (long shown = 0; frames == 0 || shown < frames; ++shown)
         {
-            for (int y = 0; y <= max_y; ++y)
-                for (int x = 0; x <= max_x; ++x)
-                {
-                    final double distance = Math.sqrt (x*x + y*y);
-                    final double fraction = 1 - distance / max_distance;
-                    final double value = Math.sin ((fraction + phase / 100.0) * 2 * Math.PI);
-                    final Double pixel = 0.5 + 0.5 * value;
-                    final Point p = new Point (x, y);
-                    
-                    m.setPixel (p, pixel);
-                }
+            final int offset = phase * WAVE_STEPS / 100;
+            
+            for (int i = 0; i < levels.length; ++i)
+                levels[i] = wave[(base[i] + offset) % WAVE_STEPS];
+            
+            m.setPixels (levels, 0, 0, width, height);
             
             if (clock != null)
                 clock.filter();
@@ -83,7 +123,19 @@ public class MonoMatrixDemo
             if (phase == 100)
                 phase = 0;
             
-            Thread.sleep (10);
+            if (pacer != null)
+                pacer.sync ();
         }
     }
+    
+    /** The level for a pixel that's on. */
+    private static final int ON = 255;
+    /** The level for a pixel that's off. */
+    private static final int OFF = 0;
+    /** The default frame rate of the wave in Hz. */
+    private static final int RATE = 100;
+    /** The time each pixel is lit for in the scan in milliseconds. */
+    private static final int SCAN_DELAY = 50;
+    /** The number of steps in the wave table. */
+    private static final int WAVE_STEPS = 1000;
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.util.Arrays;
+
+/**
+ * This class holds a frame of on/off pixels packed into a long per row, so
+ * it can be up to 64 pixels wide. As a column is also handed around as a
+ * long it can be up to 64 pixels high too. Pixel (x,y) is bit x of row y.
+ * Whole rows and whole frames can be worked on a word at a time and drivers
+ * can turn it into their own layout with a few shifts and masks.
+ *
+ * @author Jim Darby
+ */
+public class PackedBitFrame
+{
+    /**
+     * Create a frame of a given size. All the pixels start off.
+     *
+     * @param width The width in pixels: 1 to 64.
+     * @param height The height in pixels: 1 to 64.
+     */
+    public PackedBitFrame (int width, int height)
+    {
+        if (width < 1 || width > MAX_WIDTH || height < 1 || height > MAX_HEIGHT)
+            throw new IllegalArgumentException ("Invalid PackedBitFrame size " + width + 'x' + height);
+
+        WIDTH = width;
+        HEIGHT = height;
+        MASK = (width == MAX_WIDTH) ? -1L : (1L << width) - 1;
+        rows = new long[height];
+    }
+
+    /**
+     * Create a frame the same size as a given Matrix.
+     *
+     * @param m The Matrix to size it from.
+     */
+    public PackedBitFrame (Matrix <?> m)
+    {
+        this (m.getWidth (), m.getHeight ());
+    }
+
+    /**
+     * Return the width.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth ()
+    {
+        return WIDTH;
+    }
+
+    /**
+     * Return the height.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight ()
+    {
+        return HEIGHT;
+    }
+
+    /**
+     * Return a pixel.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @return If it's on.
+     */
+    public boolean get (int x, int y)
+    {
+        validate (x, y);
+
+        return (rows[y] & (1L << x)) != 0;
+    }
+
+    /**
+     * Set a pixel on or off.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param on If it's on.
+     */
+    public void set (int x, int y, boolean on)
+    {
+        validate (x, y);
+
+        if (on)
+            rows[y] |= 1L << x;
+        else
+            rows[y] &= ~(1L << x);
+    }
+
+    /**
+     * Return a row as bits, bit x being pixel x.
+     *
+     * @param y The row.
+     * @return The bits.
+     */
+    public long getRow (int y)
+    {
+        validateRow (y);
+
+        return rows[y];
+    }
+
+    /**
+     * Set a row from bits, bit x being pixel x. Bits beyond the width are
+     * ignored.
+     *
+     * @param y The row.
+     * @param bits The bits.
+     */
+    public void setRow (int y, long bits)
+    {
+        validateRow (y);
+
+        rows[y] = bits & MASK;
+    }
+
+    /**
+     * Turn a whole row on or off.
+     *
+     * @param y The row.
+     * @param on If it's on.
+     */
+    public void fillRow (int y, boolean on)
+    {
+        setRow (y, on ? MASK : 0);
+    }
+
+    /**
+     * Return a column as bits, bit y being pixel y.
+     *
+     * @param x The column.
+     * @return The bits.
+     */
+    public long getColumn (int x)
+    {
+        if (x < 0 || x >= WIDTH)
+            throw new IllegalArgumentException ("Invalid column " + x);
+
+        long result = 0;
+
+        for (int y = 0; y < HEIGHT; ++y)
+            result |= ((rows[y] >>> x) & 1L) << y;
+
+        return result;
+    }
+
+    /**
+     * Set a column from bits, bit y being pixel y.
+     *
+     * @param x The column.
+     * @param bits The bits.
+     */
+    public void setColumn (int x, long bits)
+    {
+        if (x < 0 || x >= WIDTH)
+            throw new IllegalArgumentException ("Invalid column " + x);
+
+        final long bit = 1L << x;
+
+        for (int y = 0; y < HEIGHT; ++y)
+            if (((bits >>> y) & 1L) != 0)
+                rows[y] |= bit;
+            else
+                rows[y] &= ~bit;
+    }
+
+    /**
+     * Turn every pixel off.
+     */
+    public void clear ()
+    {
+        Arrays.fill (rows, 0);
+    }
+
+    /**
+     * Turn every pixel on or off.
+     *
+     * @param on If they're on.
+     */
+    public void fill (boolean on)
+    {
+        Arrays.fill (rows, on ? MASK : 0);
+    }
+
+    /**
+     * Or another frame of the same size into this one.
+     *
+     * @param f The other frame.
+     */
+    public void or (PackedBitFrame f)
+    {
+        validateSize (f);
+
+        for (int y = 0; y < HEIGHT; ++y)
+            rows[y] |= f.rows[y];
+    }
+
+    /**
+     * And another frame of the same size into this one.
+     *
+     * @param f The other frame.
+     */
+    public void and (PackedBitFrame f)
+    {
+        validateSize (f);
+
+        for (int y = 0; y < HEIGHT; ++y)
+            rows[y] &= f.rows[y];
+    }
+
+    /**
+     * Exclusive or another frame of the same size into this one.
+     *
+     * @param f The other frame.
+     */
+    public void xor (PackedBitFrame f)
+    {
+        validateSize (f);
+
+        for (int y = 0; y < HEIGHT; ++y)
+            rows[y] ^= f.rows[y];
+    }
+
+    /**
+     * Invert every pixel.
+     */
+    public void invert ()
+    {
+        for (int y = 0; y < HEIGHT; ++y)
+            rows[y] = ~rows[y] & MASK;
+    }
+
+    /**
+     * Shift every row left (towards X zero). Pixels shifted off are lost and
+     * those shifted in are off.
+     *
+     * @param n How far to shift.
+     */
+    public void shiftLeft (int n)
+    {
+        for (int y = 0; y < HEIGHT; ++y)
+            shiftRowLeft (y, n);
+    }
+
+    /**
+     * Shift every row right (away from X zero). Pixels shifted off are lost
+     * and those shifted in are off.
+     *
+     * @param n How far to shift.
+     */
+    public void shiftRight (int n)
+    {
+        for (int y = 0; y < HEIGHT; ++y)
+            shiftRowRight (y, n);
+    }
+
+    /**
+     * Shift a single row left (towards X zero).
+     *
+     * @param y The row.
+     * @param n How far to shift.
+     */
+    public void shiftRowLeft (int y, int n)
+    {
+        validateRow (y);
+
+        if (n < 0)
+            throw new IllegalArgumentException ("Invalid shift " + n);
+
+        rows[y] = (n >= MAX_WIDTH) ? 0 : rows[y] >>> n;
+    }
+
+    /**
+     * Shift a single row right (away from X zero).
+     *
+     * @param y The row.
+     * @param n How far to shift.
+     */
+    public void shiftRowRight (int y, int n)
+    {
+        validateRow (y);
+
+        if (n < 0)
+            throw new IllegalArgumentException ("Invalid shift " + n);
+
+        rows[y] = (n >= MAX_WIDTH) ? 0 : (rows[y] << n) & MASK;
+    }
+
+    /**
+     * Count the pixels that are on.
+     *
+     * @return The count.
+     */
+    public int popCount ()
+    {
+        int result = 0;
+
+        for (int y = 0; y < HEIGHT; ++y)
+            result += Long.bitCount (rows[y]);
+
+        return result;
+    }
+
+    /**
+     * Count the pixels that are on in a row.
+     *
+     * @param y The row.
+     * @return The count.
+     */
+    public int popCount (int y)
+    {
+        validateRow (y);
+
+        return Long.bitCount (rows[y]);
+    }
+
+    /**
+     * Copy another frame of the same size into this one.
+     *
+     * @param f The other frame.
+     */
+    public void copyFrom (PackedBitFrame f)
+    {
+        validateSize (f);
+
+        System.arraycopy (f.rows, 0, rows, 0, HEIGHT);
+    }
+
+    /**
+     * Return the rows themselves. Row y is at index y. This is the live
+     * data, not a copy, and bits beyond the width must be kept clear.
+     *
+     * @return The rows.
+     */
+    public long[] getRows ()
+    {
+        return rows;
+    }
+
+    /**
+     * Check a pixel is in the frame.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     */
+    private void validate (int x, int y)
+    {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT)
+            throw new IllegalArgumentException ("Invalid co-ordinates (" + x + ',' + y + ')');
+    }
+
+    /**
+     * Check a row is in the frame.
+     *
+     * @param y The row.
+     */
+    private void validateRow (int y)
+    {
+        if (y < 0 || y >= HEIGHT)
+            throw new IllegalArgumentException ("Invalid row " + y);
+    }
+
+    /**
+     * Check another frame is the same size as this one.
+     *
+     * @param f The other frame.
+     */
+    private void validateSize (PackedBitFrame f)
+    {
+        if (f.WIDTH != WIDTH || f.HEIGHT != HEIGHT)
+            throw new IllegalArgumentException ("PackedBitFrame sizes differ");
+    }
+
+    /** The widest frame possible. */
+    public static final int MAX_WIDTH = 64;
+    /** The tallest frame we can hold, as a column is a long. */
+    public static final int MAX_HEIGHT = 64;
+
+    /** The width of the frame. */
+    public final int WIDTH;
+    /** The height of the frame. */
+    public final int HEIGHT;
+    /** The bits that are inside the width. */
+    private final long MASK;
+    /** The rows. */
+    private final long[] rows;
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.util.Arrays;
+
+/**
+ * This class provides the inner loops for effects on frames of packed
+ * 0xRRGGBB values: fill, scale, saturating add, linear interpolation and
+ * premultiplied alpha blending. They work on several channels at once within
+ * a single int (red and blue together then green) and the array versions are
+ * unrolled by four so the JIT has an easy time of it.
+ *
+ * Scale factors are in the range 0 to 255 where 255 leaves things unchanged.
+ *
+ * @author Jim Darby
+ */
+public final class PixelOps
+{
+    /**
+     * There are no instances of this class.
+     */
+    private PixelOps ()
+    {
+    }
+
+    /**
+     * Scale the three channels of a packed colour.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     * @param by The scale: 0 to 255.
+     * @return The scaled colour.
+     */
+    public static int scale (int rgb, int by)
+    {
+        validateScale (by);
+
+        final int f = by + (by >> 7);
+
+        return ((((rgb & 0xff00ff) * f) >>> 8) & 0xff00ff) |
+                ((((rgb & 0x00ff00) * f) >>> 8) & 0x00ff00);
+    }
+
+    /**
+     * Add two packed colours channel by channel, each channel stopping at
+     * 255 rather than overflowing into the next.
+     *
+     * @param a The first colour in the form 0xRRGGBB.
+     * @param b The second colour in the form 0xRRGGBB.
+     * @return The sum.
+     */
+    public static int addSaturate (int a, int b)
+    {
+        final int rb = (a & 0xff00ff) + (b & 0xff00ff);
+        final int g = (a & 0x00ff00) + (b & 0x00ff00);
+        final int rb_over = ((rb >>> 8) & 0x010001) * 0xff;
+        final int g_over = ((g >>> 8) & 0x000100) * 0xff;
+
+        return ((rb | rb_over) & 0xff00ff) | ((g | g_over) & 0x00ff00);
+    }
+
+    /**
+     * Interpolate between two packed colours. At 0 it's the first colour and
+     * at 255 it's the second.
+     *
+     * @param a The first colour in the form 0xRRGGBB.
+     * @param b The second colour in the form 0xRRGGBB.
+     * @param t The position: 0 to 255.
+     * @return The interpolated colour.
+     */
+    public static int lerp (int a, int b, int t)
+    {
+        return scale (a, 0xff - t) + scale (b, t);
+    }
+
+    /**
+     * Blend a premultiplied ARGB colour over a packed colour.
+     *
+     * @param dst The colour underneath in the form 0xRRGGBB.
+     * @param src The premultiplied colour on top in the form 0xAARRGGBB.
+     * @return The blended colour.
+     */
+    public static int blend (int dst, int src)
+    {
+        final int a = src >>> 24;
+
+        if (a == 0xff)
+            return src & 0xffffff;
+
+        if (a == 0)
+            return dst;
+
+        return (src & 0xffffff) + scale (dst, 0xff - a);
+    }
+
+    /**
+     * Fill part of a frame with a colour.
+     *
+     * @param dst The frame.
+     * @param off Where to start.
+     * @param len How many pixels.
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    public static void fill (int[] dst, int off, int len, int rgb)
+    {
+        Arrays.fill (dst, off, off + len, rgb);
+    }
+
+    /**
+     * Scale part of a frame in place. This is a fade.
+     *
+     * @param dst The frame.
+     * @param off Where to start.
+     * @param len How many pixels.
+     * @param by The scale: 0 to 255.
+     */
+    public static void scale (int[] dst, int off, int len, int by)
+    {
+        validateScale (by);
+        validate (dst, off, len);
+
+        final int f = by + (by >> 7);
+        final int end = off + len;
+        final int end4 = off + (len & ~3);
+        int i = off;
+
+        for (; i < end4; i += 4)
+        {
+            final int p0 = dst[i];
+            final int p1 = dst[i + 1];
+            final int p2 = dst[i + 2];
+            final int p3 = dst[i + 3];
+
+            dst[i    ] = ((((p0 & 0xff00ff) * f) >>> 8) & 0xff00ff) | ((((p0 & 0x00ff00) * f) >>> 8) & 0x00ff00);
+            dst[i + 1] = ((((p1 & 0xff00ff) * f) >>> 8) & 0xff00ff) | ((((p1 & 0x00ff00) * f) >>> 8) & 0x00ff00);
+            dst[i + 2] = ((((p2 & 0xff00ff) * f) >>> 8) & 0xff00ff) | ((((p2 & 0x00ff00) * f) >>> 8) & 0x00ff00);
+            dst[i + 3] = ((((p3 & 0xff00ff) * f) >>> 8) & 0xff00ff) | ((((p3 & 0x00ff00) * f) >>> 8) & 0x00ff00);
+        }
+
+        for (; i < end; ++i)
+            dst[i] = scale (dst[i], by);
+    }
+
+    /**
+     * Add one frame to another, saturating each channel.
+     *
+     * @param dst The frame added to.
+     * @param src The frame to add.
+     * @param off Where to start in both.
+     * @param len How many pixels.
+     */
+    public static void addSaturate (int[] dst, int[] src, int off, int len)
+    {
+        validate (dst, off, len);
+        validate (src, off, len);
+
+        final int end = off + len;
+        final int end4 = off + (len & ~3);
+        int i = off;
+
+        for (; i < end4; i += 4)
+        {
+            dst[i    ] = addSaturate (dst[i    ], src[i    ]);
+            dst[i + 1] = addSaturate (dst[i + 1], src[i + 1]);
+            dst[i + 2] = addSaturate (dst[i + 2], src[i + 2]);
+            dst[i + 3] = addSaturate (dst[i + 3], src[i + 3]);
+        }
+
+        for (; i < end; ++i)
+            dst[i] = addSaturate (dst[i], src[i]);
+    }
+
+    /**
+     * Interpolate between two frames into a third. This is a cross-fade.
+     *
+     * @param dst Where the result goes. It may be the same as a or b.
+     * @param a The first frame.
+     * @param b The second frame.
+     * @param off Where to start in all three.
+     * @param len How many pixels.
+     * @param t The position: 0 for a to 255 for b.
+     */
+    public static void lerp (int[] dst, int[] a, int[] b, int off, int len, int t)
+    {
+        validateScale (t);
+        validate (dst, off, len);
+        validate (a, off, len);
+        validate (b, off, len);
+
+        final int fa = (0xff - t) + ((0xff - t) >> 7);
+        final int fb = t + (t >> 7);
+        final int end = off + len;
+        final int end4 = off + (len & ~3);
+        int i = off;
+
+        for (; i < end4; i += 4)
+        {
+            dst[i    ] = lerp (a[i    ], b[i    ], fa, fb);
+            dst[i + 1] = lerp (a[i + 1], b[i + 1], fa, fb);
+            dst[i + 2] = lerp (a[i + 2], b[i + 2], fa, fb);
+            dst[i + 3] = lerp (a[i + 3], b[i + 3], fa, fb);
+        }
+
+        for (; i < end; ++i)
+            dst[i] = lerp (a[i], b[i], fa, fb);
+    }
+
+    /**
+     * Blend a frame of premultiplied ARGB values over a frame of packed
+     * colours.
+     *
+     * @param dst The frame underneath, updated in place.
+     * @param src The premultiplied frame on top.
+     * @param off Where to start in both.
+     * @param len How many pixels.
+     */
+    public static void blend (int[] dst, int[] src, int off, int len)
+    {
+        validate (dst, off, len);
+        validate (src, off, len);
+
+        final int end = off + len;
+        final int end4 = off + (len & ~3);
+        int i = off;
+
+        for (; i < end4; i += 4)
+        {
+            dst[i    ] = blend (dst[i    ], src[i    ]);
+            dst[i + 1] = blend (dst[i + 1], src[i + 1]);
+            dst[i + 2] = blend (dst[i + 2], src[i + 2]);
+            dst[i + 3] = blend (dst[i + 3], src[i + 3]);
+        }
+
+        for (; i < end; ++i)
+            dst[i] = blend (dst[i], src[i]);
+    }
+
+    /**
+     * Interpolate with the factors already worked out.
+     *
+     * @param a The first colour.
+     * @param b The second colour.
+     * @param fa The factor for a: 0 to 256.
+     * @param fb The factor for b: 0 to 256.
+     * @return The interpolated colour.
+     */
+    private static int lerp (int a, int b, int fa, int fb)
+    {
+        return (((((a & 0xff00ff) * fa) >>> 8) & 0xff00ff) | ((((a & 0x00ff00) * fa) >>> 8) & 0x00ff00)) +
+                (((((b & 0xff00ff) * fb) >>> 8) & 0xff00ff) | ((((b & 0x00ff00) * fb) >>> 8) & 0x00ff00));
+    }
+
+    /**
+     * Check a scale factor.
+     *
+     * @param by The scale factor.
+     */
+    private static void validateScale (int by)
+    {
+        if (by < 0 || by > 0xff)
+            throw new IllegalArgumentException ("Invalid scale " + by);
+    }
+
+    /**
+     * Check a range is inside an array. This lets the loops go without
+     * further checks.
+     *
+     * @param data The array.
+     * @param off The start.
+     * @param len The length.
+     */
+    private static void validate (int[] data, int off, int len)
+    {
+        if (off < 0 || len < 0 || off + len > data.length)
+            throw new IllegalArgumentException ("Invalid range " + off + '+' + len + " for " + data.length);
+    }
+}
@@ -18,10 +18,19 @@
 
 package Jimbo.Graphics;
 
+import java.util.Arrays;
+
 /**
  * This class represents a point on the x,y plane. It's held as a purely
  * integer point where both x and y are greater then or equal to zero.
  * 
+ * Points are immutable so the common ones are interned: Point.of returns
+ * the same object every time for a given (x,y) inside the cached grid. Each
+ * row of the grid grows on its own, to cover each Matrix as it is created
+ * and each point asked for, so a long thin strip or one far off point only
+ * costs the rows it touches. Rendering with Point.of doesn't allocate
+ * anything once things are up and running.
+ * 
  * @author Jim Darby
  */
 public class Point
@@ -43,6 +52,91 @@ public class Point
 	this.y = y;
     }
     
+    /**
+     * Return the point with the given coordinates. Inside the cached grid
+     * this always returns the same object and allocates nothing, outside it
+     * it just creates a new Point.
+     * 
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The Point.
+     */
+    public static Point of (int x, int y)
+    {
+	final Point[][] grid = cache;
+	
+	if ((x | y) >= 0 && y < grid.length)
+	{
+	    final Point[] row = grid[y];
+	    
+	    if (x < row.length)
+		return row[x];
+	}
+	
+	if (x < 0 || y < 0 || x >= MAX_CACHED || y >= MAX_CACHED)
+	    return new Point (x, y);
+	
+	cover (y, y + 1, x + 1);
+	
+	return cache[y][x];
+    }
+    
+    /**
+     * Make sure the cached grid covers at least a given width and height.
+     * Matrices call this when they're created so their points are ready
+     * before the first frame. Anything beyond MAX_CACHED in either direction
+     * isn't cached.
+     * 
+     * @param width The width to cover.
+     * @param height The height to cover.
+     */
+    public static void reserve (int width, int height)
+    {
+	cover (0, height, width);
+    }
+    
+    /**
+     * Make sure a range of rows of the cached grid are at least a given
+     * width. Rows outside the range are left alone. The grid and its rows
+     * are replaced, never modified, so readers need no lock.
+     * 
+     * @param first The first row.
+     * @param last One past the last row.
+     * @param width The width to cover.
+     */
+    private static synchronized void cover (int first, int last, int width)
+    {
+	final Point[][] old = cache;
+	final int end = Math.min (last, MAX_CACHED);
+	final int wide = Math.min (width, MAX_CACHED);
+	Point[][] grid = old;
+	
+	for (int y = first; y < end; ++y)
+	{
+	    final Point[] row = (y < old.length) ? old[y] : EMPTY;
+	    
+	    if (row.length >= wide)
+		continue;
+	    
+	    if (grid == old)
+	    {
+		grid = Arrays.copyOf (old, Math.max (old.length, end));
+		
+		for (int i = old.length; i < grid.length; ++i)
+		    grid[i] = EMPTY;
+	    }
+	    
+	    final Point[] longer = Arrays.copyOf (row, wide);
+	    
+	    for (int x = row.length; x < wide; ++x)
+		longer[x] = new Point (x, y);
+	    
+	    grid[y] = longer;
+	}
+	
+	cache = grid;
+    }
+    
     /**
      * Get the x coordinate.
      * 
@@ -91,4 +185,11 @@ public class Point
     private final int x;
     /** Our y coordinate. */
     private final int y;
+    
+    /** The largest width or height we'll cache. */
+    public static final int MAX_CACHED = 256;
+    /** An empty row. */
+    private static final Point[] EMPTY = new Point[0];
+    /** The cached points, indexed by [y][x], rows replaced never modified. */
+    private static volatile Point[][] cache = new Point[0][0];
 }
@@ -42,7 +42,7 @@ public class Snake extends Mapping
      */
     public Snake (int width, int height)
     {
-	super (new Point (width - 1, height - 1));
+	super (Point.of (width - 1, height - 1));
     }
 
     /**
@@ -70,7 +70,7 @@ public class Snake extends Mapping
 	
 	validateIn (p);
 
-	final Point result = ((p.getY () & 1) != 0) ? new Point (getInMax ().getX () - p.getX (), p.getY ()) : p;
+	final Point result = ((p.getY () & 1) != 0) ? Point.of (getInMax ().getX () - p.getX (), p.getY ()) : p;
 
 	validateOut (result);
 	
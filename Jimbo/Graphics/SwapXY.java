@@ -47,7 +47,7 @@ public class SwapXY extends Mapping
      */
     public SwapXY (int width, int height)
     {
-	super (new Point (width - 1, height - 1), new Point (height - 1, width - 1));
+	super (Point.of (width - 1, height - 1), Point.of (height - 1, width - 1));
     }
 
     /**
@@ -58,7 +58,7 @@ public class SwapXY extends Mapping
      */
     public SwapXY (Mapping before)
     {
-	super (before, new Point (before.getOutMax ().getY (), before.getOutMax ().getX ()));
+	super (before, Point.of (before.getOutMax ().getY (), before.getOutMax ().getX ()));
     }
     
     /**
@@ -75,7 +75,7 @@ public class SwapXY extends Mapping
 
 	validateIn (p);
 
-	final Point result = new Point (p.getY (), p.getX ());
+	final Point result = Point.of (p.getY (), p.getX ());
 
 	validateOut (result);
 	
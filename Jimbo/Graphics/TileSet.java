@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This class keeps track of the tiles of a tiled matrix: where each child
+ * matrix sits in the big coordinate space, how it's turned round and which
+ * bus it's on. It also works out how a bulk update splits up between the
+ * tiles. It's shared by TiledColourMatrix and TiledMonoMatrix, which only do
+ * the actual pixel copying.
+ *
+ * Like the matrices that use it, it isn't thread safe: tiles are added and
+ * used from one thread, or the caller does its own locking.
+ *
+ * @author Jim Darby
+ * @param <M> The type of the child matrices.
+ */
+final class TileSet <M extends Matrix <?>>
+{
+    /**
+     * This class describes a single tile.
+     *
+     * @param <M> The type of the child matrix.
+     */
+    static final class Tile <M>
+    {
+        /**
+         * Create a tile.
+         *
+         * @param matrix The child matrix.
+         * @param x The X coordinate of the tile's bottom left.
+         * @param y The Y coordinate of the tile's bottom left.
+         * @param t The transform from tile coordinates to the child's.
+         */
+        private Tile (M matrix, int x, int y, Transform t)
+        {
+            MATRIX = matrix;
+            X = x;
+            Y = y;
+            WIDTH = t.getInMax ().getX () + 1;
+            HEIGHT = t.getInMax ().getY () + 1;
+            CHILD_WIDTH = t.getOutMax ().getX () + 1;
+            MAP = t.compile ();
+            IDENTITY = MAP.isIdentity ();
+        }
+
+        /** The child matrix. */
+        final M MATRIX;
+        /** The X coordinate of the tile's bottom left. */
+        final int X;
+        /** The Y coordinate of the tile's bottom left. */
+        final int Y;
+        /** The width of the tile in our coordinates. */
+        final int WIDTH;
+        /** The height of the tile in our coordinates. */
+        final int HEIGHT;
+        /** The width of the child matrix. */
+        final int CHILD_WIDTH;
+        /** The tile to child mapping. */
+        final CompiledMapping MAP;
+        /** Is the mapping the identity? */
+        final boolean IDENTITY;
+    }
+
+    /**
+     * This class describes the part of a bulk update that falls on one tile:
+     * which pixels of the update go where in a rectangle of the tile's
+     * matrix. It's reused from one tile to the next.
+     *
+     * @param <M> The type of the child matrix.
+     */
+    static final class Part <M>
+    {
+        /** The child matrix. */
+        M matrix;
+        /** The X coordinate of the rectangle on the child. */
+        int x;
+        /** The Y coordinate of the rectangle on the child. */
+        int y;
+        /** The width of the rectangle on the child. */
+        int width;
+        /** The height of the rectangle on the child. */
+        int height;
+        /** The number of pixels to copy. */
+        int count;
+        /** The index of each pixel in the update's data. */
+        int[] from = new int[0];
+        /** The index of each pixel in the child's rectangle. */
+        int[] to = new int[0];
+    }
+
+    /**
+     * Create an empty set of tiles.
+     *
+     * @param width The width of the whole area.
+     * @param height The height of the whole area.
+     */
+    TileSet (int width, int height)
+    {
+        WIDTH = width;
+        HEIGHT = height;
+        owner = new int[width * height];
+
+        Arrays.fill (owner, -1);
+    }
+
+    /**
+     * Add a tile.
+     *
+     * @param m The child matrix.
+     * @param x The X coordinate of the tile's bottom left.
+     * @param y The Y coordinate of the tile's bottom left.
+     * @param t The transform from tile coordinates to the child's. Its output
+     * must be the size of the child.
+     * @param bus Tiles with the same bus are shown one after another, tiles on
+     * different buses are shown at the same time.
+     * @return The new tile.
+     */
+    Tile <M> add (M m, int x, int y, Transform t, Object bus)
+    {
+        final Point out = t.getOutMax ();
+
+        if (out.getX () + 1 != m.getWidth () || out.getY () + 1 != m.getHeight ())
+            throw new IllegalArgumentException ("Transform " + t + " doesn't match the tile's matrix");
+
+        final Tile <M> tile = new Tile <> (m, x, y, t);
+
+        if (x < 0 || y < 0 || x + tile.WIDTH > WIDTH || y + tile.HEIGHT > HEIGHT)
+            throw new IllegalArgumentException ("Tile at (" + x + ',' + y + ") doesn't fit");
+
+        for (int j = 0; j < tile.HEIGHT; ++j)
+            for (int i = 0; i < tile.WIDTH; ++i)
+                if (owner[x + i + WIDTH * (y + j)] >= 0)
+                    throw new IllegalArgumentException ("Tile at (" + x + ',' + y + ") overlaps another");
+
+        final int index = tiles.size ();
+
+        for (int j = 0; j < tile.HEIGHT; ++j)
+            Arrays.fill (owner, x + WIDTH * (y + j), x + tile.WIDTH + WIDTH * (y + j), index);
+
+        tiles.add (tile);
+        group.add (bus, m);
+
+        return tile;
+    }
+
+    /**
+     * Find the tile covering a point.
+     *
+     * @param x The X coordinate, already checked.
+     * @param y The Y coordinate, already checked.
+     * @return The tile or null if there isn't one there.
+     */
+    Tile <M> find (int x, int y)
+    {
+        final int index = owner[x + WIDTH * y];
+
+        return (index < 0) ? null : tiles.get (index);
+    }
+
+    /**
+     * Return all the tiles.
+     *
+     * @return The tiles.
+     */
+    List <Tile <M>> getTiles ()
+    {
+        return Collections.unmodifiableList (tiles);
+    }
+
+    /**
+     * Split a bulk update up by tile. For each tile the rectangle covers the
+     * action is given the pixels to copy and the rectangle on the tile's
+     * matrix they make up. That's always a rectangle as the tile mappings
+     * are affine.
+     *
+     * @param x The X coordinate of the bottom left of the update.
+     * @param y The Y coordinate of the bottom left of the update.
+     * @param w The width of the update.
+     * @param h The height of the update.
+     * @param action What to do with each part.
+     */
+    void split (int x, int y, int w, int h, Consumer <Part <M>> action)
+    {
+        for (Tile <M> t : tiles)
+        {
+            final int x0 = Math.max (x, t.X);
+            final int y0 = Math.max (y, t.Y);
+            final int x1 = Math.min (x + w, t.X + t.WIDTH);
+            final int y1 = Math.min (y + h, t.Y + t.HEIGHT);
+
+            if (x0 >= x1 || y0 >= y1)
+                continue;
+
+            final int iw = x1 - x0;
+            final int ih = y1 - y0;
+
+            if (part.from.length < iw * ih)
+            {
+                part.from = new int[iw * ih];
+                part.to = new int[iw * ih];
+            }
+
+            part.matrix = t.MATRIX;
+            part.count = iw * ih;
+
+            if (t.IDENTITY)
+            {
+                part.x = x0 - t.X;
+                part.y = y0 - t.Y;
+                part.width = iw;
+                part.height = ih;
+            }
+            else
+            {
+                // Find the rectangle from two opposite corners.
+                final int a = t.MAP.mapIndex (x0 - t.X, y0 - t.Y);
+                final int b = t.MAP.mapIndex (x1 - 1 - t.X, y1 - 1 - t.Y);
+
+                part.x = Math.min (a % t.CHILD_WIDTH, b % t.CHILD_WIDTH);
+                part.y = Math.min (a / t.CHILD_WIDTH, b / t.CHILD_WIDTH);
+                part.width = Math.abs (a % t.CHILD_WIDTH - b % t.CHILD_WIDTH) + 1;
+                part.height = Math.abs (a / t.CHILD_WIDTH - b / t.CHILD_WIDTH) + 1;
+            }
+
+            int k = 0;
+
+            for (int j = 0; j < ih; ++j)
+            {
+                final int in = (x0 - x) + w * (y0 - y + j);
+
+                for (int i = 0; i < iw; ++i, ++k)
+                {
+                    part.from[k] = in + i;
+
+                    if (t.IDENTITY)
+                    {
+                        part.to[k] = k;
+                    }
+                    else
+                    {
+                        final int index = t.MAP.mapIndex (x0 + i - t.X, y0 + j - t.Y);
+
+                        part.to[k] = (index % t.CHILD_WIDTH - part.x) + part.width * (index / t.CHILD_WIDTH - part.y);
+                    }
+                }
+            }
+
+            action.accept (part);
+        }
+    }
+
+    /**
+     * Show all the child matrices. Those on different buses are shown in
+     * parallel and this waits for them all.
+     *
+     * @throws IOException If any of them has trouble.
+     */
+    void show () throws IOException
+    {
+        group.show ();
+    }
+
+    /** The width of the whole area. */
+    private final int WIDTH;
+    /** The height of the whole area. */
+    private final int HEIGHT;
+    /** The index of the tile covering each pixel, or -1. */
+    private final int[] owner;
+    /** The tiles. */
+    private final List <Tile <M>> tiles = new ArrayList <> ();
+    /** The part handed out by split. */
+    private final Part <M> part = new Part <> ();
+    /** The child matrices grouped by bus. */
+    private final DisplayGroup group = new DisplayGroup ();
+}
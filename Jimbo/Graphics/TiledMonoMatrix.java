@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+
+/**
+ * This class makes several MonoMatrix boards look like one big one. Each
+ * board is a tile with its own position and orientation in the big
+ * coordinate space. Bulk updates are split up into a bulk update per tile and
+ * show updates tiles on different buses at the same time. Pixels not covered
+ * by any tile are quietly ignored.
+ *
+ * <pre>
+ * final TiledMonoMatrix sign = new TiledMonoMatrix (32, 16);
+ *
+ * sign.add (left, 0, 0);
+ * sign.add (right, 16, 0, new Transform (16, 16).rotate180 ());
+ * </pre>
+ *
+ * @author Jim Darby
+ */
+public class TiledMonoMatrix extends MatrixHelper <Integer> implements MonoMatrix
+{
+    /**
+     * Create an empty tiled matrix.
+     *
+     * @param width The width of the whole display.
+     * @param height The height of the whole display.
+     */
+    public TiledMonoMatrix (int width, int height)
+    {
+        super (width, height);
+        tiles = new TileSet <> (width, height);
+    }
+
+    /**
+     * Add a tile the right way up. It shares a bus with all the other tiles
+     * added without one.
+     *
+     * @param m The matrix for the tile.
+     * @param x The X coordinate of its bottom left.
+     * @param y The Y coordinate of its bottom left.
+     */
+    public void add (MonoMatrix m, int x, int y)
+    {
+        add (m, x, y, new Transform (m.getWidth (), m.getHeight ()), null);
+    }
+
+    /**
+     * Add a tile in some orientation. It shares a bus with all the other
+     * tiles added without one.
+     *
+     * @param m The matrix for the tile.
+     * @param x The X coordinate of its bottom left.
+     * @param y The Y coordinate of its bottom left.
+     * @param t The transform from the tile's area to the matrix. Its input is
+     * the size of the tile in our coordinates and its output the size of the
+     * matrix.
+     */
+    public void add (MonoMatrix m, int x, int y, Transform t)
+    {
+        add (m, x, y, t, null);
+    }
+
+    /**
+     * Add a tile in some orientation on a given bus.
+     *
+     * @param m The matrix for the tile.
+     * @param x The X coordinate of its bottom left.
+     * @param y The Y coordinate of its bottom left.
+     * @param t The transform from the tile's area to the matrix.
+     * @param bus Anything that identifies the bus the matrix is on. Tiles
+     * sharing a bus are shown one at a time, those on different buses are
+     * shown in parallel.
+     */
+    public void add (MonoMatrix m, int x, int y, Transform t, Object bus)
+    {
+        final TileSet.Tile <MonoMatrix> tile = tiles.add (m, x, y, t, bus);
+
+        if (tile.WIDTH * tile.HEIGHT > scratch.length)
+            scratch = new byte[tile.WIDTH * tile.HEIGHT];
+    }
+
+    /**
+     * Sets a pixel to a specific value.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param value The value: 0 to 255.
+     */
+    @Override
+    public void setPixel (int x, int y, int value)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid co-ordinates for set");
+
+        final TileSet.Tile <MonoMatrix> t = tiles.find (x, y);
+
+        if (t == null)
+            return;
+
+        final int index = t.MAP.mapIndex (x - t.X, y - t.Y);
+
+        t.MATRIX.setPixel (index % t.CHILD_WIDTH, index / t.CHILD_WIDTH, value);
+    }
+
+    /**
+     * Sets a rectangle of pixels from unsigned byte levels. The part of the
+     * rectangle on each tile is gathered up, turned round if need be and
+     * handed to that tile's matrix in one go.
+     *
+     * @param levels The levels, treated as unsigned.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (byte[] levels, int x, int y, int w, int h)
+    {
+        validateArea (levels.length, x, y, w, h);
+
+        tiles.split (x, y, w, h, p ->
+        {
+            for (int i = 0; i < p.count; ++i)
+                scratch[p.to[i]] = levels[p.from[i]];
+
+            p.matrix.setPixels (scratch, p.x, p.y, p.width, p.height);
+        });
+    }
+
+    /**
+     * Show all the tiles. Tiles on different buses are shown in parallel.
+     *
+     * @throws IOException In case of trouble with any of them.
+     */
+    @Override
+    public void show () throws IOException
+    {
+        tiles.show ();
+    }
+
+    /** The tiles. */
+    private final TileSet <MonoMatrix> tiles;
+    /** Where each tile's part of a bulk update is gathered. */
+    private byte[] scratch = new byte[0];
+}
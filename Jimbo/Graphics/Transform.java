@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+/**
+ * This class is an integer affine Mapping. A point (x,y) maps to
+ * (a * x + b * y + tx, c * x + d * y + ty). Rotations, flips, transposes and
+ * translations are all of this form and so is any sequence of them, so a
+ * whole chain collapses into a single Transform that costs the same to
+ * evaluate as one step. Each operation returns a new Transform; they never
+ * change.
+ *
+ * <pre>
+ * final Transform t = new Transform (16, 16).rotate90 ().flipX ();
+ * </pre>
+ *
+ * Rotations are anticlockwise with (0,0) at the bottom left.
+ *
+ * @author Jim Darby
+ */
+public class Transform extends Mapping
+{
+    /**
+     * Create the identity transform for a given size.
+     *
+     * @param width The width.
+     * @param height The height.
+     */
+    public Transform (int width, int height)
+    {
+        this (Point.of (width - 1, height - 1), Point.of (width - 1, height - 1), 1, 0, 0, 1, 0, 0);
+    }
+
+    /**
+     * Create a transform from its coefficients.
+     *
+     * @param inMax The input maximum.
+     * @param outMax The output maximum.
+     * @param a The X to X coefficient.
+     * @param b The Y to X coefficient.
+     * @param c The X to Y coefficient.
+     * @param d The Y to Y coefficient.
+     * @param tx The X offset.
+     * @param ty The Y offset.
+     */
+    private Transform (Point inMax, Point outMax, int a, int b, int c, int d, int tx, int ty)
+    {
+        super (inMax, outMax);
+
+        A = a;
+        B = b;
+        C = c;
+        D = d;
+        TX = tx;
+        TY = ty;
+    }
+
+    /**
+     * Convert any Mapping, including a chain of them, into a Transform. The
+     * mapping is sampled to find the coefficients and then every point is
+     * checked, so this is for set up time and not for hot paths.
+     *
+     * @param m The mapping.
+     * @return The equivalent Transform.
+     * @throws IllegalArgumentException If the mapping isn't affine (Snake,
+     * for example).
+     */
+    public static Transform of (Mapping m)
+    {
+        if (m instanceof Transform)
+            return (Transform) m;
+
+        final Point in = m.getOriginalMax ();
+        final Point out = m.getOutMax ();
+        final Point origin = m.map (Point.of (0, 0));
+        final int tx = origin.getX ();
+        final int ty = origin.getY ();
+        int a = 1, b = 0, c = 0, d = 1;
+
+        if (in.getX () > 0)
+        {
+            final Point p = m.map (Point.of (1, 0));
+
+            a = p.getX () - tx;
+            c = p.getY () - ty;
+        }
+
+        if (in.getY () > 0)
+        {
+            final Point p = m.map (Point.of (0, 1));
+
+            b = p.getX () - tx;
+            d = p.getY () - ty;
+        }
+
+        final Transform result = new Transform (in, out, a, b, c, d, tx, ty);
+
+        for (int y = 0; y <= in.getY (); ++y)
+            for (int x = 0; x <= in.getX (); ++x)
+            {
+                final Point want = m.map (Point.of (x, y));
+
+                if (want.getX () != a * x + b * y + tx || want.getY () != c * x + d * y + ty)
+                    throw new IllegalArgumentException ("Mapping " + m + " isn't affine");
+            }
+
+        return result;
+    }
+
+    /**
+     * Perform this transform and then another. The other transform's input
+     * must be the same size as this one's output.
+     *
+     * @param next The transform to perform afterwards.
+     * @return The combined transform.
+     */
+    public Transform then (Transform next)
+    {
+        if (!same (next.getInMax (), getOutMax ()))
+            throw new IllegalArgumentException ("Transform " + next + " doesn't follow " + this);
+
+        return new Transform (getInMax (), next.getOutMax (),
+                next.A * A + next.B * C, next.A * B + next.B * D,
+                next.C * A + next.D * C, next.C * B + next.D * D,
+                next.A * TX + next.B * TY + next.TX, next.C * TX + next.D * TY + next.TY);
+    }
+
+    /**
+     * Perform this transform and then any Mapping that can be expressed as a
+     * Transform.
+     *
+     * @param next The mapping to perform afterwards.
+     * @return The combined transform.
+     */
+    public Transform then (Mapping next)
+    {
+        return then (of (next));
+    }
+
+    /**
+     * Rotate the output by 90 degrees anticlockwise. The width and height
+     * swap over.
+     *
+     * @return The new transform.
+     */
+    public Transform rotate90 ()
+    {
+        final Point max = getOutMax ();
+
+        return then (new Transform (max, Point.of (max.getY (), max.getX ()), 0, -1, 1, 0, max.getY (), 0));
+    }
+
+    /**
+     * Rotate the output by 180 degrees.
+     *
+     * @return The new transform.
+     */
+    public Transform rotate180 ()
+    {
+        final Point max = getOutMax ();
+
+        return then (new Transform (max, max, -1, 0, 0, -1, max.getX (), max.getY ()));
+    }
+
+    /**
+     * Rotate the output by 270 degrees anticlockwise (90 clockwise). The
+     * width and height swap over.
+     *
+     * @return The new transform.
+     */
+    public Transform rotate270 ()
+    {
+        final Point max = getOutMax ();
+
+        return then (new Transform (max, Point.of (max.getY (), max.getX ()), 0, 1, -1, 0, 0, max.getX ()));
+    }
+
+    /**
+     * Flip the output X coordinates over.
+     *
+     * @return The new transform.
+     */
+    public Transform flipX ()
+    {
+        final Point max = getOutMax ();
+
+        return then (new Transform (max, max, -1, 0, 0, 1, max.getX (), 0));
+    }
+
+    /**
+     * Flip the output Y coordinates over.
+     *
+     * @return The new transform.
+     */
+    public Transform flipY ()
+    {
+        final Point max = getOutMax ();
+
+        return then (new Transform (max, max, 1, 0, 0, -1, 0, max.getY ()));
+    }
+
+    /**
+     * Swap the output X and Y coordinates over. The width and height swap
+     * over too.
+     *
+     * @return The new transform.
+     */
+    public Transform transpose ()
+    {
+        final Point max = getOutMax ();
+
+        return then (new Transform (max, Point.of (max.getY (), max.getX ()), 0, 1, 1, 0, 0, 0));
+    }
+
+    /**
+     * Move the output onto a (usually larger) output area.
+     *
+     * @param dx The X offset.
+     * @param dy The Y offset.
+     * @param width The width of the new output.
+     * @param height The height of the new output.
+     * @return The new transform.
+     */
+    public Transform translate (int dx, int dy, int width, int height)
+    {
+        return then (new Transform (getOutMax (), Point.of (width - 1, height - 1), 1, 0, 0, 1, dx, dy));
+    }
+
+    /**
+     * Is this the identity? The input and output must be the same size too.
+     *
+     * @return If it is.
+     */
+    public boolean isIdentity ()
+    {
+        return A == 1 && B == 0 && C == 0 && D == 1 && TX == 0 && TY == 0 &&
+                same (getInMax (), getOutMax ());
+    }
+
+    /**
+     * Does this reverse the order of the pixels? That is, does input index
+     * x + width * y go to output index (width * height - 1) minus that? This
+     * is a 180 degree rotation, or a flip of a single row or column.
+     *
+     * @return If it does.
+     */
+    public boolean isReversal ()
+    {
+        final Point max = getInMax ();
+
+        if (!same (max, getOutMax ()))
+            return false;
+
+        // Along a dimension of size one the coefficient for it can be
+        // anything as it's always multiplied by zero.
+        final boolean wide = max.getX () > 0;
+        final boolean tall = max.getY () > 0;
+
+        return TX == max.getX () && TY == max.getY () &&
+                (!wide || (A == -1 && C == 0)) && (!tall || (B == 0 && D == -1));
+    }
+
+    /**
+     * Are two points the same?
+     *
+     * @param a The first point.
+     * @param b The second point.
+     * @return If they are.
+     */
+    private static boolean same (Point a, Point b)
+    {
+        return a.getX () == b.getX () && a.getY () == b.getY ();
+    }
+
+    /**
+     * Perform the mapping.
+     *
+     * @param p The input point.
+     * @return The mapped result.
+     */
+    @Override
+    public Point map (Point p)
+    {
+        validateIn (p);
+
+        final int x = p.getX ();
+        final int y = p.getY ();
+        final Point result = Point.of (A * x + B * y + TX, C * x + D * y + TY);
+
+        validateOut (result);
+
+        return result;
+    }
+
+    /**
+     * Return a printable form of the transform.
+     *
+     * @return The String representation.
+     */
+    @Override
+    public String toString ()
+    {
+        return "Transform from " + getInMax () + " to " + getOutMax () +
+                " x' = " + A + "x + " + B + "y + " + TX +
+                ", y' = " + C + "x + " + D + "y + " + TY;
+    }
+
+    /** The X to X coefficient. */
+    private final int A;
+    /** The Y to X coefficient. */
+    private final int B;
+    /** The X to Y coefficient. */
+    private final int C;
+    /** The Y to Y coefficient. */
+    private final int D;
+    /** The X offset. */
+    private final int TX;
+    /** The Y offset. */
+    private final int TY;
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * This class is a BitMatrix that exists only in memory. It's for running
+ * and timing code without any hardware. The pixels can be read back, shows
+ * are counted and each shown frame can optionally be written to a PBM file.
+ *
+ * @author Jim Darby
+ */
+public class VirtualBitMatrix extends MatrixHelper <Boolean> implements BitMatrix
+{
+    /**
+     * Create a virtual matrix of any size.
+     *
+     * @param width The width.
+     * @param height The height.
+     */
+    public VirtualBitMatrix (int width, int height)
+    {
+        super (width, height);
+
+        data = new boolean[WIDTH * HEIGHT];
+        shown = new boolean[WIDTH * HEIGHT];
+    }
+
+    /**
+     * Sets a pixel on or off.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @param on If the pixel is on.
+     */
+    @Override
+    public void setPixel (int x, int y, boolean on)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for setPixel");
+
+        data[x + WIDTH * y] = on;
+    }
+
+    /**
+     * Sets the pixels covered by a PackedBitFrame.
+     *
+     * @param f The frame.
+     * @param x The X coordinate for the frame's bottom left.
+     * @param y The Y coordinate for the frame's bottom left.
+     */
+    @Override
+    public void setPixels (PackedBitFrame f, int x, int y)
+    {
+        if (x < 0 || y < 0 || x + f.WIDTH > WIDTH || y + f.HEIGHT > HEIGHT)
+            throw new IllegalArgumentException ("PackedBitFrame doesn't fit at (" + x + ',' + y + ')');
+
+        final long[] rows = f.getRows ();
+
+        for (int j = 0; j < f.HEIGHT; ++j)
+        {
+            final long row = rows[j];
+            final int base = x + WIDTH * (y + j);
+
+            for (int i = 0; i < f.WIDTH; ++i)
+                data[base + i] = ((row >>> i) & 1L) != 0;
+        }
+    }
+
+    /**
+     * "Show" the frame. This takes a copy of it, counts it and writes it to
+     * the dump file if there is one.
+     *
+     * @throws IOException In case of trouble.
+     */
+    @Override
+    public void show () throws IOException
+    {
+        System.arraycopy (data, 0, shown, 0, data.length);
+        ++frames;
+
+        if (dump != null)
+        {
+            final int row_bytes = (WIDTH + 7) / 8;
+
+            Arrays.fill (dump_buffer, (byte) 0);
+
+            // Image rows go top down, we go bottom up. PBM has 1 as black so
+            // "on" pixels come out black on white.
+            for (int y = 0; y < HEIGHT; ++y)
+            {
+                final int base = row_bytes * (MAX_Y - y);
+
+                for (int x = 0; x < WIDTH; ++x)
+                    if (shown[x + WIDTH * y])
+                        dump_buffer[base + x / 8] |= (byte) (0x80 >> (x % 8));
+            }
+
+            dump.write (dump_buffer);
+        }
+    }
+
+    /**
+     * Return a pixel as currently drawn.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @return If the pixel is on.
+     */
+    public boolean getPixel (int x, int y)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for getPixel");
+
+        return data[x + WIDTH * y];
+    }
+
+    /**
+     * Return the pixels as currently drawn. Pixel (x,y) is at x + width * y.
+     * This is the live buffer, not a copy.
+     *
+     * @return The pixel data.
+     */
+    public boolean[] getData ()
+    {
+        return data;
+    }
+
+    /**
+     * Return the pixels as they were at the last show. This is the live
+     * buffer, not a copy.
+     *
+     * @return The pixel data.
+     */
+    public boolean[] getShown ()
+    {
+        return shown;
+    }
+
+    /**
+     * Return the number of times show has been called.
+     *
+     * @return The frame count.
+     */
+    public long getFrameCount ()
+    {
+        return frames;
+    }
+
+    /**
+     * Start writing each shown frame to a PBM file. The file always holds the
+     * latest frame.
+     *
+     * @param path The file to write to.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void dumpTo (Path path) throws IOException
+    {
+        stopDump ();
+
+        dump_buffer = new byte[(WIDTH + 7) / 8 * HEIGHT];
+        dump = new FrameDump (path, "P4", WIDTH, HEIGHT, dump_buffer.length);
+    }
+
+    /**
+     * Stop writing frames to the dump file, if we are.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void stopDump () throws IOException
+    {
+        if (dump != null)
+        {
+            dump.close ();
+            dump = null;
+            dump_buffer = null;
+        }
+    }
+
+    /** The pixels as drawn. */
+    private final boolean[] data;
+    /** The pixels as last shown. */
+    private final boolean[] shown;
+    /** The number of shows. */
+    private long frames = 0;
+    /** Where the frames are dumped or null. */
+    private FrameDump dump = null;
+    /** The buffer used to build the dumped frame. */
+    private byte[] dump_buffer = null;
+}
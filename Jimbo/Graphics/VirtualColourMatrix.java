@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * This class is a ColourMatrix that exists only in memory. It's for running
+ * and timing code without any hardware. The pixels can be read back, shows
+ * are counted and each shown frame can optionally be written to a PPM file.
+ *
+ * @author Jim Darby
+ */
+public class VirtualColourMatrix extends MatrixHelper <Colour> implements ColourMatrix
+{
+    /**
+     * Create a virtual matrix of any size.
+     *
+     * @param width The width.
+     * @param height The height.
+     */
+    public VirtualColourMatrix (int width, int height)
+    {
+        super (width, height);
+
+        data = new int[WIDTH * HEIGHT];
+        shown = new int[WIDTH * HEIGHT];
+    }
+
+    /**
+     * Sets a pixel to a specific colour.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @param r The red value: 0 to 255.
+     * @param g The green value: 0 to 255.
+     * @param b The blue value: 0 to 255.
+     */
+    @Override
+    public void setPixel (int x, int y, int r, int g, int b)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for setPixel");
+
+        data[x + WIDTH * y] = Colour.pack (r, g, b);
+    }
+
+    /**
+     * Sets a rectangle of pixels from packed 0xRRGGBB values.
+     *
+     * @param rgb The packed pixel data.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (int[] rgb, int x, int y, int w, int h)
+    {
+        validateArea (rgb.length, x, y, w, h);
+
+        for (int j = 0; j < h; ++j)
+        {
+            final int in = w * j;
+            final int out = x + WIDTH * (y + j);
+
+            for (int i = 0; i < w; ++i)
+                data[out + i] = rgb[in + i] & 0xffffff;
+        }
+    }
+
+    /**
+     * Set every pixel to the same colour.
+     *
+     * @param rgb The colour in the form 0xRRGGBB.
+     */
+    @Override
+    public void fill (int rgb)
+    {
+        Arrays.fill (data, rgb & 0xffffff);
+    }
+
+    /**
+     * "Show" the frame. This takes a copy of it, counts it and writes it to
+     * the dump file if there is one.
+     *
+     * @throws IOException In case of trouble.
+     */
+    @Override
+    public void show () throws IOException
+    {
+        System.arraycopy (data, 0, shown, 0, data.length);
+        ++frames;
+
+        if (dump != null)
+        {
+            int out = 0;
+
+            // Image rows go top down, we go bottom up.
+            for (int y = MAX_Y; y >= 0; --y)
+                for (int x = 0; x < WIDTH; ++x)
+                {
+                    final int value = shown[x + WIDTH * y];
+
+                    dump_buffer[out++] = (byte) (value >> 16);
+                    dump_buffer[out++] = (byte) (value >> 8);
+                    dump_buffer[out++] = (byte) value;
+                }
+
+            dump.write (dump_buffer);
+        }
+    }
+
+    /**
+     * Return a pixel as currently drawn.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @return The colour in the form 0xRRGGBB.
+     */
+    public int getPixel (int x, int y)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for getPixel");
+
+        return data[x + WIDTH * y];
+    }
+
+    /**
+     * Return the pixels as currently drawn. Pixel (x,y) is at x + width * y.
+     * This is the live buffer, not a copy.
+     *
+     * @return The pixel data.
+     */
+    public int[] getData ()
+    {
+        return data;
+    }
+
+    /**
+     * Return the pixels as they were at the last show. This is the live
+     * buffer, not a copy.
+     *
+     * @return The pixel data.
+     */
+    public int[] getShown ()
+    {
+        return shown;
+    }
+
+    /**
+     * Return the number of times show has been called.
+     *
+     * @return The frame count.
+     */
+    public long getFrameCount ()
+    {
+        return frames;
+    }
+
+    /**
+     * Start writing each shown frame to a PPM file. The file always holds the
+     * latest frame.
+     *
+     * @param path The file to write to.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void dumpTo (Path path) throws IOException
+    {
+        stopDump ();
+
+        dump_buffer = new byte[WIDTH * HEIGHT * 3];
+        dump = new FrameDump (path, "P6", WIDTH, HEIGHT, dump_buffer.length);
+    }
+
+    /**
+     * Stop writing frames to the dump file, if we are.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void stopDump () throws IOException
+    {
+        if (dump != null)
+        {
+            dump.close ();
+            dump = null;
+            dump_buffer = null;
+        }
+    }
+
+    /** The pixels as drawn. */
+    private final int[] data;
+    /** The pixels as last shown. */
+    private final int[] shown;
+    /** The number of shows. */
+    private long frames = 0;
+    /** Where the frames are dumped or null. */
+    private FrameDump dump = null;
+    /** The buffer used to build the dumped frame. */
+    private byte[] dump_buffer = null;
+}
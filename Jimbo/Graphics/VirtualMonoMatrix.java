@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class is a MonoMatrix that exists only in memory. It's for running
+ * and timing code without any hardware. The pixels can be read back, shows
+ * are counted and each shown frame can optionally be written to a PGM file.
+ *
+ * @author Jim Darby
+ */
+public class VirtualMonoMatrix extends MatrixHelper <Integer> implements MonoMatrix
+{
+    /**
+     * Create a virtual matrix of any size.
+     *
+     * @param width The width.
+     * @param height The height.
+     */
+    public VirtualMonoMatrix (int width, int height)
+    {
+        super (width, height);
+
+        data = new byte[WIDTH * HEIGHT];
+        shown = new byte[WIDTH * HEIGHT];
+    }
+
+    /**
+     * Sets a pixel to a specific value.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @param value The value to set in the range 0 to 255.
+     */
+    @Override
+    public void setPixel (int x, int y, int value)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for setPixel");
+
+        if (value < 0 || value > 255)
+            throw new IllegalArgumentException ("Invalid pixel value " + value);
+
+        data[x + WIDTH * y] = (byte) value;
+    }
+
+    /**
+     * Sets a rectangle of pixels from unsigned byte levels. Each row is a
+     * straight array copy.
+     *
+     * @param levels The levels, treated as unsigned.
+     * @param x The X coordinate of the bottom left of the rectangle.
+     * @param y The Y coordinate of the bottom left of the rectangle.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    @Override
+    public void setPixels (byte[] levels, int x, int y, int w, int h)
+    {
+        validateArea (levels.length, x, y, w, h);
+
+        for (int j = 0; j < h; ++j)
+            System.arraycopy (levels, w * j, data, x + WIDTH * (y + j), w);
+    }
+
+    /**
+     * "Show" the frame. This takes a copy of it, counts it and writes it to
+     * the dump file if there is one.
+     *
+     * @throws IOException In case of trouble.
+     */
+    @Override
+    public void show () throws IOException
+    {
+        System.arraycopy (data, 0, shown, 0, data.length);
+        ++frames;
+
+        if (dump != null)
+        {
+            // Image rows go top down, we go bottom up.
+            for (int y = 0; y < HEIGHT; ++y)
+                System.arraycopy (shown, WIDTH * y, dump_buffer, WIDTH * (MAX_Y - y), WIDTH);
+
+            dump.write (dump_buffer);
+        }
+    }
+
+    /**
+     * Return a pixel as currently drawn.
+     *
+     * @param x The X coordinate of the pixel.
+     * @param y The Y coordinate of the pixel.
+     * @return The value in the range 0 to 255.
+     */
+    public int getPixel (int x, int y)
+    {
+        if (x < 0 || x > MAX_X || y < 0 || y > MAX_Y)
+            throw new IllegalArgumentException ("Invalid coordinates for getPixel");
+
+        return data[x + WIDTH * y] & 0xff;
+    }
+
+    /**
+     * Return the pixels as currently drawn. Pixel (x,y) is at x + width * y
+     * and the values are unsigned. This is the live buffer, not a copy.
+     *
+     * @return The pixel data.
+     */
+    public byte[] getData ()
+    {
+        return data;
+    }
+
+    /**
+     * Return the pixels as they were at the last show. This is the live
+     * buffer, not a copy.
+     *
+     * @return The pixel data.
+     */
+    public byte[] getShown ()
+    {
+        return shown;
+    }
+
+    /**
+     * Return the number of times show has been called.
+     *
+     * @return The frame count.
+     */
+    public long getFrameCount ()
+    {
+        return frames;
+    }
+
+    /**
+     * Start writing each shown frame to a PGM file. The file always holds the
+     * latest frame.
+     *
+     * @param path The file to write to.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void dumpTo (Path path) throws IOException
+    {
+        stopDump ();
+
+        dump_buffer = new byte[WIDTH * HEIGHT];
+        dump = new FrameDump (path, "P5", WIDTH, HEIGHT, dump_buffer.length);
+    }
+
+    /**
+     * Stop writing frames to the dump file, if we are.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public void stopDump () throws IOException
+    {
+        if (dump != null)
+        {
+            dump.close ();
+            dump = null;
+            dump_buffer = null;
+        }
+    }
+
+    /** The pixels as drawn. */
+    private final byte[] data;
+    /** The pixels as last shown. */
+    private final byte[] shown;
+    /** The number of shows. */
+    private long frames = 0;
+    /** Where the frames are dumped or null. */
+    private FrameDump dump = null;
+    /** The buffer used to build the dumped frame. */
+    private byte[] dump_buffer = null;
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.animation;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoField;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import Jimbo.Graphics.ColourMatrix;
+import Jimbo.MCP.Controller;
+import Jimbo.MCP.RepeatingDiaryEntry;
+import Jimbo.MCP.Task;
+
+/**
+ * This class plays compiled frames on a ColourMatrix as a Task run by a
+ * Controller. Each time it's performed it hands the next frame to the matrix
+ * and shows it; there's no per frame work beyond that and nothing is
+ * allocated. Because it's just a Task many animations on many displays can
+ * share one Controller thread.
+ *
+ * @author Jim Darby
+ */
+public class Animation implements Task
+{
+    /**
+     * Create an animation from already drawn frames.
+     *
+     * @param m The matrix to play on.
+     * @param frames The frames, each the size of the matrix with pixel (x,y)
+     * at x + width * y.
+     * @param loop If true go round for ever, otherwise close after the last
+     * frame.
+     */
+    public Animation (ColourMatrix m, int[][] frames, boolean loop)
+    {
+        if (frames.length < 1)
+            throw new IllegalArgumentException ("No frames to animate");
+
+        for (int[] frame : frames)
+            if (frame.length < m.getWidth () * m.getHeight ())
+                throw new IllegalArgumentException ("Frame too small for matrix");
+
+        this.m = m;
+        this.frames = frames;
+        this.loop = loop;
+        width = m.getWidth ();
+        height = m.getHeight ();
+    }
+
+    /**
+     * Create an animation from a Timeline, compiling it.
+     *
+     * @param m The matrix to play on.
+     * @param t The timeline.
+     * @param loop If true go round for ever, otherwise close after the last
+     * frame.
+     */
+    public Animation (ColourMatrix m, Timeline t, boolean loop)
+    {
+        this (m, t.compile (), loop);
+    }
+
+    /**
+     * Start playing on a Controller.
+     *
+     * @param c The Controller.
+     * @param period The time between frames in milliseconds. Frames fall on
+     * multiples of this within each second so it's best if it divides 1000.
+     */
+    public void start (Controller c, int period)
+    {
+        c.put (new RepeatingDiaryEntry (this, period, ChronoField.MILLI_OF_SECOND));
+    }
+
+    /**
+     * Show the next frame.
+     *
+     * @param now When it's called.
+     * @param wanted When it was supposed to be called.
+     */
+    @Override
+    public void perform (Instant now, Instant wanted)
+    {
+        if (closed)
+            return;
+
+        try
+        {
+            m.setPixels (frames[frame], 0, 0, width, height);
+            m.show ();
+        }
+
+        catch (IOException e)
+        {
+            LOG.log (Level.WARNING, "Animation stopped: {0}", e.getMessage ());
+            close ();
+            return;
+        }
+
+        if (++frame == frames.length)
+        {
+            if (loop)
+                frame = 0;
+            else
+                close ();
+        }
+    }
+
+    /**
+     * Return the frame that will be shown next.
+     *
+     * @return The frame number.
+     */
+    public int getFrame ()
+    {
+        return frame;
+    }
+
+    /**
+     * Stop the animation. It won't be performed again.
+     */
+    @Override
+    public void close ()
+    {
+        closed = true;
+    }
+
+    /**
+     * Check if the animation has stopped.
+     *
+     * @return If it has.
+     */
+    @Override
+    public boolean closed ()
+    {
+        return closed;
+    }
+
+    /** Where we log to. */
+    private static final Logger LOG = Logger.getLogger (Animation.class.getName ());
+
+    /** The matrix we play on. */
+    private final ColourMatrix m;
+    /** The frames. */
+    private final int[][] frames;
+    /** Do we go round for ever? */
+    private final boolean loop;
+    /** The width of the matrix. */
+    private final int width;
+    /** The height of the matrix. */
+    private final int height;
+    /** The next frame to show. */
+    private int frame = 0;
+    /** Have we stopped? */
+    private volatile boolean closed = false;
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.animation;
+
+/**
+ * This class is a Track of packed colours in the form 0xRRGGBB. Each channel
+ * is interpolated on its own.
+ *
+ * @author Jim Darby
+ */
+public class ColourTrack extends Track
+{
+    /**
+     * Create a colour track.
+     *
+     * @param initial The colour at frame zero.
+     */
+    public ColourTrack (int initial)
+    {
+        super (initial);
+    }
+
+    /**
+     * Interpolate between two colours a channel at a time.
+     *
+     * @param from The colour at the start.
+     * @param to The colour at the end.
+     * @param t How far along: 0 to ONE (exclusive).
+     * @return The interpolated colour.
+     */
+    @Override
+    protected int interpolate (int from, int to, int t)
+    {
+        int result = 0;
+
+        for (int shift = 0; shift < 24; shift += 8)
+            result |= super.interpolate ((from >> shift) & 0xff, (to >> shift) & 0xff, t) << shift;
+
+        return result;
+    }
+}
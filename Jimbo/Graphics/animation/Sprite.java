@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.animation;
+
+/**
+ * This class is a solid rectangle that moves around a Timeline. Its
+ * position, colour and brightness are each a Track so they can all be key
+ * framed separately.
+ *
+ * @author Jim Darby
+ */
+public class Sprite
+{
+    /**
+     * Create a sprite. It starts at the origin, white and at full brightness.
+     *
+     * @param width The width in pixels.
+     * @param height The height in pixels.
+     */
+    public Sprite (int width, int height)
+    {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException ("Invalid Sprite size " + width + 'x' + height);
+
+        WIDTH = width;
+        HEIGHT = height;
+    }
+
+    /**
+     * Return the track for the X coordinate of the bottom left corner.
+     *
+     * @return The track.
+     */
+    public Track getX ()
+    {
+        return x;
+    }
+
+    /**
+     * Return the track for the Y coordinate of the bottom left corner.
+     *
+     * @return The track.
+     */
+    public Track getY ()
+    {
+        return y;
+    }
+
+    /**
+     * Return the track for the colour, in the form 0xRRGGBB.
+     *
+     * @return The track.
+     */
+    public ColourTrack getColour ()
+    {
+        return colour;
+    }
+
+    /**
+     * Return the track for the brightness: 0 to 255.
+     *
+     * @return The track.
+     */
+    public Track getBrightness ()
+    {
+        return brightness;
+    }
+
+    /** The width of the sprite. */
+    public final int WIDTH;
+    /** The height of the sprite. */
+    public final int HEIGHT;
+
+    /** Where the left edge is. */
+    private final Track x = new Track (0);
+    /** Where the bottom edge is. */
+    private final Track y = new Track (0);
+    /** The colour. */
+    private final ColourTrack colour = new ColourTrack (0xffffff);
+    /** The brightness. */
+    private final Track brightness = new Track (255);
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.animation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import Jimbo.Graphics.Matrix;
+import Jimbo.Graphics.PixelOps;
+
+/**
+ * This class is a fixed length animation made of Sprites. Compiling it works
+ * out every track and draws every frame, giving an array of packed frames
+ * ready to be handed straight to a ColourMatrix. Later sprites are drawn on
+ * top of earlier ones and anything off the edge is clipped.
+ *
+ * @author Jim Darby
+ */
+public class Timeline
+{
+    /**
+     * Create a timeline.
+     *
+     * @param width The width of the display.
+     * @param height The height of the display.
+     * @param frames The number of frames.
+     */
+    public Timeline (int width, int height, int frames)
+    {
+        if (width < 1 || height < 1 || frames < 1)
+            throw new IllegalArgumentException ("Invalid Timeline " + width + 'x' + height + " for " + frames + " frames");
+
+        WIDTH = width;
+        HEIGHT = height;
+        FRAMES = frames;
+    }
+
+    /**
+     * Create a timeline the size of a matrix.
+     *
+     * @param m The matrix.
+     * @param frames The number of frames.
+     */
+    public Timeline (Matrix <?> m, int frames)
+    {
+        this (m.getWidth (), m.getHeight (), frames);
+    }
+
+    /**
+     * Add a sprite. It's drawn on top of those already added.
+     *
+     * @param s The sprite.
+     */
+    public void add (Sprite s)
+    {
+        sprites.add (s);
+    }
+
+    /**
+     * Draw every frame. Pixel (x,y) of frame f is at result[f][x + WIDTH * y]
+     * in the form 0xRRGGBB.
+     *
+     * @return The frames.
+     */
+    public int[][] compile ()
+    {
+        final int[][] result = new int[FRAMES][WIDTH * HEIGHT];
+
+        for (Sprite s : sprites)
+        {
+            final int[] xs = s.getX ().compile (FRAMES);
+            final int[] ys = s.getY ().compile (FRAMES);
+            final int[] colours = s.getColour ().compile (FRAMES);
+            final int[] levels = s.getBrightness ().compile (FRAMES);
+
+            for (int f = 0; f < FRAMES; ++f)
+            {
+                final int level = Math.max (0, Math.min (255, levels[f]));
+                final int rgb = PixelOps.scale (colours[f], level);
+                final int x0 = Math.max (0, xs[f]);
+                final int x1 = Math.min (WIDTH, xs[f] + s.WIDTH);
+                final int y0 = Math.max (0, ys[f]);
+                final int y1 = Math.min (HEIGHT, ys[f] + s.HEIGHT);
+
+                for (int y = y0; y < y1; ++y)
+                    if (x1 > x0)
+                        PixelOps.fill (result[f], x0 + WIDTH * y, x1 - x0, rgb);
+            }
+        }
+
+        return result;
+    }
+
+    /** The width of the display. */
+    public final int WIDTH;
+    /** The height of the display. */
+    public final int HEIGHT;
+    /** The number of frames. */
+    public final int FRAMES;
+
+    /** The sprites, bottom first. */
+    private final List <Sprite> sprites = new ArrayList <> ();
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.animation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is a track of integer values set at key frames. Between key
+ * frames the value is interpolated in 16 bit fixed point. Before the first key
+ * frame and after the last one the value holds. Once all the key frames are in
+ * the track is compiled into a value for every frame, so nothing has to be
+ * worked out while it's playing.
+ *
+ * @author Jim Darby
+ */
+public class Track
+{
+    /**
+     * Create a track.
+     *
+     * @param initial The value at frame zero.
+     */
+    public Track (int initial)
+    {
+        keys.put (0, initial);
+    }
+
+    /**
+     * Set the value at a key frame. Setting the same frame again replaces it.
+     *
+     * @param frame The frame.
+     * @param value The value there.
+     */
+    public void add (int frame, int value)
+    {
+        if (frame < 0)
+            throw new IllegalArgumentException ("Invalid key frame " + frame);
+
+        keys.put (frame, value);
+    }
+
+    /**
+     * Work out the value for every frame.
+     *
+     * @param frames The number of frames.
+     * @return The values, one per frame.
+     */
+    public int[] compile (int frames)
+    {
+        if (frames < 1)
+            throw new IllegalArgumentException ("Invalid number of frames " + frames);
+
+        final int[] result = new int[frames];
+        int from_frame = 0;
+        int from_value = keys.get (0);
+
+        for (Map.Entry <Integer, Integer> e : keys.entrySet ())
+        {
+            final int to_frame = e.getKey ();
+            final int to_value = e.getValue ();
+            final int span = to_frame - from_frame;
+
+            for (int f = from_frame; f < to_frame && f < frames; ++f)
+                result[f] = interpolate (from_value, to_value, (int) (((long) (f - from_frame) << SHIFT) / span));
+
+            from_frame = to_frame;
+            from_value = to_value;
+        }
+
+        for (int f = from_frame; f < frames; ++f)
+            result[f] = from_value;
+
+        return result;
+    }
+
+    /**
+     * Interpolate between two values.
+     *
+     * @param from The value at the start.
+     * @param to The value at the end.
+     * @param t How far along: 0 to ONE (exclusive).
+     * @return The interpolated value.
+     */
+    protected int interpolate (int from, int to, int t)
+    {
+        return from + (int) (((long) (to - from) * t + HALF) >> SHIFT);
+    }
+
+    /** The number of fraction bits in a position. */
+    public static final int SHIFT = 16;
+    /** One in fixed point. */
+    public static final int ONE = 1 << SHIFT;
+    /** A half in fixed point, for rounding. */
+    private static final int HALF = ONE / 2;
+
+    /** The key frames. */
+    private final TreeMap <Integer, Integer> keys = new TreeMap <> ();
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.text;
+
+/**
+ * This class is a bitmap font. Every glyph is rasterised when the font is
+ * built so looking one up is just an array index. Characters the font doesn't
+ * have come out as a question mark.
+ *
+ * @author Jim Darby
+ */
+public class Font
+{
+    /**
+     * Build a font from column data. Each glyph is a fixed number of bytes,
+     * one per column left to right, with bit 0 as the top row. This is the
+     * layout most LCD and LED fonts come in.
+     *
+     * @param data The column data for all the glyphs.
+     * @param first The first character in the data.
+     * @param columns The number of columns for each glyph.
+     * @param height The height of the glyphs: 1 to 8.
+     * @param proportional If true blank columns at either side of each glyph
+     * are trimmed off. A blank glyph (a space) is kept at half the width.
+     */
+    public Font (byte[] data, char first, int columns, int height, boolean proportional)
+    {
+        if (columns < 1 || height < 1 || height > 8 || data.length % columns != 0)
+            throw new IllegalArgumentException ("Invalid font layout");
+
+        HEIGHT = height;
+        FIRST = first;
+        glyphs = new Glyph[data.length / columns];
+
+        final int top = height - 1;
+
+        for (int g = 0; g < glyphs.length; ++g)
+        {
+            final int[] cols = new int[columns];
+
+            // Flip each column over so bit y is pixel y from the bottom.
+            for (int x = 0; x < columns; ++x)
+            {
+                final int in = data[g * columns + x] & 0xff;
+                int out = 0;
+
+                for (int y = 0; y < height; ++y)
+                    if ((in & (1 << (top - y))) != 0)
+                        out |= 1 << y;
+
+                cols[x] = out;
+            }
+
+            int left = 0;
+            int right = columns;
+
+            if (proportional)
+            {
+                while (left < right && cols[left] == 0)
+                    ++left;
+
+                while (right > left && cols[right - 1] == 0)
+                    --right;
+
+                if (left == right)
+                {
+                    left = 0;
+                    right = (columns + 1) / 2;
+                }
+            }
+
+            final int[] trimmed = new int[right - left];
+
+            System.arraycopy (cols, left, trimmed, 0, trimmed.length);
+            glyphs[g] = new Glyph (trimmed);
+        }
+
+        final int q = '?' - first;
+
+        missing = (q >= 0 && q < glyphs.length) ? glyphs[q] : glyphs[0];
+    }
+
+    /**
+     * Return the glyph for a character.
+     *
+     * @param c The character.
+     * @return The glyph. If the font doesn't have the character it's the glyph
+     * for a question mark.
+     */
+    public Glyph getGlyph (char c)
+    {
+        final int i = c - FIRST;
+
+        return (i >= 0 && i < glyphs.length) ? glyphs[i] : missing;
+    }
+
+    /**
+     * Return the height of the font.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight ()
+    {
+        return HEIGHT;
+    }
+
+    /**
+     * Return the tallest of the built in proportional fonts that fits in a
+     * given height, so text on a short matrix isn't cropped.
+     *
+     * @param height The height available in pixels.
+     * @return The font.
+     */
+    public static Font fitting (int height)
+    {
+        if (height >= PROPORTIONAL_5X7.HEIGHT)
+            return PROPORTIONAL_5X7;
+
+        if (height >= PROPORTIONAL_3X5.HEIGHT)
+            return PROPORTIONAL_3X5;
+
+        throw new IllegalArgumentException ("No font fits in a height of " + height);
+    }
+
+    /**
+     * Return the width a string will take up when rendered.
+     *
+     * @param s The string.
+     * @param spacing The number of blank columns between characters.
+     * @return The width in pixels.
+     */
+    public int getWidth (String s, int spacing)
+    {
+        int result = 0;
+
+        for (int i = 0; i < s.length (); ++i)
+            result += getGlyph (s.charAt (i)).WIDTH + ((i > 0) ? spacing : 0);
+
+        return result;
+    }
+
+    /** The height of the font. */
+    public final int HEIGHT;
+    /** The first character in the font. */
+    public final char FIRST;
+
+    /** The glyphs, starting from the first character. */
+    private final Glyph[] glyphs;
+    /** What we draw for characters we don't have. */
+    private final Glyph missing;
+
+    /** The classic 5x7 font covering printable ASCII. */
+    private static final byte[] DATA_5X7 =
+    {
+        0x00, 0x00, 0x00, 0x00, 0x00, // space
+        0x00, 0x00, 0x5f, 0x00, 0x00, // !
+        0x00, 0x07, 0x00, 0x07, 0x00, // "
+        0x14, 0x7f, 0x14, 0x7f, 0x14, // #
+        0x24, 0x2a, 0x7f, 0x2a, 0x12, // $
+        0x23, 0x13, 0x08, 0x64, 0x62, // %
+        0x36, 0x49, 0x55, 0x22, 0x50, // &
+        0x00, 0x05, 0x03, 0x00, 0x00, // '
+        0x00, 0x1c, 0x22, 0x41, 0x00, // (
+        0x00, 0x41, 0x22, 0x1c, 0x00, // )
+        0x08, 0x2a, 0x1c, 0x2a, 0x08, // *
+        0x08, 0x08, 0x3e, 0x08, 0x08, // +
+        0x00, 0x50, 0x30, 0x00, 0x00, // ,
+        0x08, 0x08, 0x08, 0x08, 0x08, // -
+        0x00, 0x60, 0x60, 0x00, 0x00, // .
+        0x20, 0x10, 0x08, 0x04, 0x02, // /
+        0x3e, 0x51, 0x49, 0x45, 0x3e, // 0
+        0x00, 0x42, 0x7f, 0x40, 0x00, // 1
+        0x42, 0x61, 0x51, 0x49, 0x46, // 2
+        0x21, 0x41, 0x45, 0x4b, 0x31, // 3
+        0x18, 0x14, 0x12, 0x7f, 0x10, // 4
+        0x27, 0x45, 0x45, 0x45, 0x39, // 5
+        0x3c, 0x4a, 0x49, 0x49, 0x30, // 6
+        0x01, 0x71, 0x09, 0x05, 0x03, // 7
+        0x36, 0x49, 0x49, 0x49, 0x36, // 8
+        0x06, 0x49, 0x49, 0x29, 0x1e, // 9
+        0x00, 0x36, 0x36, 0x00, 0x00, // :
+        0x00, 0x56, 0x36, 0x00, 0x00, // ;
+        0x08, 0x14, 0x22, 0x41, 0x00, // <
+        0x14, 0x14, 0x14, 0x14, 0x14, // =
+        0x00, 0x41, 0x22, 0x14, 0x08, // >
+        0x02, 0x01, 0x51, 0x09, 0x06, // ?
+        0x32, 0x49, 0x79, 0x41, 0x3e, // @
+        0x7e, 0x11, 0x11, 0x11, 0x7e, // A
+        0x7f, 0x49, 0x49, 0x49, 0x36, // B
+        0x3e, 0x41, 0x41, 0x41, 0x22, // C
+        0x7f, 0x41, 0x41, 0x22, 0x1c, // D
+        0x7f, 0x49, 0x49, 0x49, 0x41, // E
+        0x7f, 0x09, 0x09, 0x01, 0x01, // F
+        0x3e, 0x41, 0x41, 0x51, 0x32, // G
+        0x7f, 0x08, 0x08, 0x08, 0x7f, // H
+        0x00, 0x41, 0x7f, 0x41, 0x00, // I
+        0x20, 0x40, 0x41, 0x3f, 0x01, // J
+        0x7f, 0x08, 0x14, 0x22, 0x41, // K
+        0x7f, 0x40, 0x40, 0x40, 0x40, // L
+        0x7f, 0x02, 0x04, 0x02, 0x7f, // M
+        0x7f, 0x04, 0x08, 0x10, 0x7f, // N
+        0x3e, 0x41, 0x41, 0x41, 0x3e, // O
+        0x7f, 0x09, 0x09, 0x09, 0x06, // P
+        0x3e, 0x41, 0x51, 0x21, 0x5e, // Q
+        0x7f, 0x09, 0x19, 0x29, 0x46, // R
+        0x46, 0x49, 0x49, 0x49, 0x31, // S
+        0x01, 0x01, 0x7f, 0x01, 0x01, // T
+        0x3f, 0x40, 0x40, 0x40, 0x3f, // U
+        0x1f, 0x20, 0x40, 0x20, 0x1f, // V
+        0x7f, 0x20, 0x18, 0x20, 0x7f, // W
+        0x63, 0x14, 0x08, 0x14, 0x63, // X
+        0x03, 0x04, 0x78, 0x04, 0x03, // Y
+        0x61, 0x51, 0x49, 0x45, 0x43, // Z
+        0x00, 0x7f, 0x41, 0x41, 0x00, // [
+        0x02, 0x04, 0x08, 0x10, 0x20, // backslash
+        0x00, 0x41, 0x41, 0x7f, 0x00, // ]
+        0x04, 0x02, 0x01, 0x02, 0x04, // ^
+        0x40, 0x40, 0x40, 0x40, 0x40, // _
+        0x00, 0x01, 0x02, 0x04, 0x00, // `
+        0x20, 0x54, 0x54, 0x54, 0x78, // a
+        0x7f, 0x48, 0x44, 0x44, 0x38, // b
+        0x38, 0x44, 0x44, 0x44, 0x20, // c
+        0x38, 0x44, 0x44, 0x48, 0x7f, // d
+        0x38, 0x54, 0x54, 0x54, 0x18, // e
+        0x08, 0x7e, 0x09, 0x01, 0x02, // f
+        0x08, 0x14, 0x54, 0x54, 0x3c, // g
+        0x7f, 0x08, 0x04, 0x04, 0x78, // h
+        0x00, 0x44, 0x7d, 0x40, 0x00, // i
+        0x20, 0x40, 0x44, 0x3d, 0x00, // j
+        0x00, 0x7f, 0x10, 0x28, 0x44, // k
+        0x00, 0x41, 0x7f, 0x40, 0x00, // l
+        0x7c, 0x04, 0x18, 0x04, 0x78, // m
+        0x7c, 0x08, 0x04, 0x04, 0x78, // n
+        0x38, 0x44, 0x44, 0x44, 0x38, // o
+        0x7c, 0x14, 0x14, 0x14, 0x08, // p
+        0x08, 0x14, 0x14, 0x18, 0x7c, // q
+        0x7c, 0x08, 0x04, 0x04, 0x08, // r
+        0x48, 0x54, 0x54, 0x54, 0x20, // s
+        0x04, 0x3f, 0x44, 0x40, 0x20, // t
+        0x3c, 0x40, 0x40, 0x20, 0x7c, // u
+        0x1c, 0x20, 0x40, 0x20, 0x1c, // v
+        0x3c, 0x40, 0x30, 0x40, 0x3c, // w
+        0x44, 0x28, 0x10, 0x28, 0x44, // x
+        0x0c, 0x50, 0x50, 0x50, 0x3c, // y
+        0x44, 0x64, 0x54, 0x4c, 0x44, // z
+        0x00, 0x08, 0x36, 0x41, 0x00, // {
+        0x00, 0x00, 0x7f, 0x00, 0x00, // |
+        0x00, 0x41, 0x36, 0x08, 0x00, // }
+        0x02, 0x01, 0x02, 0x04, 0x02  // ~
+    };
+
+    /**
+     * A tiny 3x5 font covering printable ASCII, for displays only 5 pixels
+     * high. Lower case comes out as small capitals.
+     */
+    private static final byte[] DATA_3X5 =
+    {
+        0x00, 0x00, 0x00, // space
+        0x00, 0x17, 0x00, // !
+        0x03, 0x00, 0x03, // "
+        0x1f, 0x0a, 0x1f, // #
+        0x12, 0x1f, 0x09, // $
+        0x19, 0x04, 0x13, // %
+        0x0a, 0x15, 0x1a, // &
+        0x00, 0x03, 0x00, // '
+        0x00, 0x0e, 0x11, // (
+        0x11, 0x0e, 0x00, // )
+        0x0a, 0x04, 0x0a, // *
+        0x04, 0x0e, 0x04, // +
+        0x10, 0x08, 0x00, // ,
+        0x04, 0x04, 0x04, // -
+        0x00, 0x10, 0x00, // .
+        0x18, 0x04, 0x03, // /
+        0x1f, 0x11, 0x1f, // 0
+        0x12, 0x1f, 0x10, // 1
+        0x1d, 0x15, 0x17, // 2
+        0x11, 0x15, 0x1f, // 3
+        0x07, 0x04, 0x1f, // 4
+        0x17, 0x15, 0x1d, // 5
+        0x1f, 0x15, 0x1d, // 6
+        0x01, 0x1d, 0x03, // 7
+        0x1f, 0x15, 0x1f, // 8
+        0x17, 0x15, 0x1f, // 9
+        0x00, 0x0a, 0x00, // :
+        0x10, 0x0a, 0x00, // ;
+        0x04, 0x0a, 0x11, // <
+        0x0a, 0x0a, 0x0a, // =
+        0x11, 0x0a, 0x04, // >
+        0x01, 0x15, 0x07, // ?
+        0x1f, 0x15, 0x17, // @
+        0x1e, 0x05, 0x1e, // A
+        0x1f, 0x15, 0x0a, // B
+        0x0e, 0x11, 0x11, // C
+        0x1f, 0x11, 0x0e, // D
+        0x1f, 0x15, 0x11, // E
+        0x1f, 0x05, 0x01, // F
+        0x0e, 0x11, 0x1d, // G
+        0x1f, 0x04, 0x1f, // H
+        0x11, 0x1f, 0x11, // I
+        0x08, 0x10, 0x0f, // J
+        0x1f, 0x04, 0x1b, // K
+        0x1f, 0x10, 0x10, // L
+        0x1f, 0x06, 0x1f, // M
+        0x1f, 0x01, 0x1e, // N
+        0x0e, 0x11, 0x0e, // O
+        0x1f, 0x05, 0x02, // P
+        0x0e, 0x19, 0x16, // Q
+        0x1f, 0x05, 0x1a, // R
+        0x12, 0x15, 0x09, // S
+        0x01, 0x1f, 0x01, // T
+        0x1f, 0x10, 0x1f, // U
+        0x0f, 0x10, 0x0f, // V
+        0x1f, 0x0c, 0x1f, // W
+        0x1b, 0x04, 0x1b, // X
+        0x03, 0x1c, 0x03, // Y
+        0x19, 0x15, 0x13, // Z
+        0x1f, 0x11, 0x00, // [
+        0x03, 0x04, 0x18, // \
+        0x00, 0x11, 0x1f, // ]
+        0x02, 0x01, 0x02, // ^
+        0x10, 0x10, 0x10, // _
+        0x01, 0x02, 0x00, // `
+        0x1e, 0x05, 0x1e, // a
+        0x1f, 0x15, 0x0a, // b
+        0x0e, 0x11, 0x11, // c
+        0x1f, 0x11, 0x0e, // d
+        0x1f, 0x15, 0x11, // e
+        0x1f, 0x05, 0x01, // f
+        0x0e, 0x11, 0x1d, // g
+        0x1f, 0x04, 0x1f, // h
+        0x11, 0x1f, 0x11, // i
+        0x08, 0x10, 0x0f, // j
+        0x1f, 0x04, 0x1b, // k
+        0x1f, 0x10, 0x10, // l
+        0x1f, 0x06, 0x1f, // m
+        0x1f, 0x01, 0x1e, // n
+        0x0e, 0x11, 0x0e, // o
+        0x1f, 0x05, 0x02, // p
+        0x0e, 0x19, 0x16, // q
+        0x1f, 0x05, 0x1a, // r
+        0x12, 0x15, 0x09, // s
+        0x01, 0x1f, 0x01, // t
+        0x1f, 0x10, 0x1f, // u
+        0x0f, 0x10, 0x0f, // v
+        0x1f, 0x0c, 0x1f, // w
+        0x1b, 0x04, 0x1b, // x
+        0x03, 0x1c, 0x03, // y
+        0x19, 0x15, 0x13, // z
+        0x04, 0x1b, 0x11, // {
+        0x00, 0x1f, 0x00, // |
+        0x11, 0x1b, 0x04, // }
+        0x04, 0x06, 0x02  // ~
+    };
+
+    /** The classic 5x7 font with every character 5 pixels wide. */
+    public static final Font FIXED_5X7 = new Font (DATA_5X7, ' ', 5, 7, false);
+    /** The classic 5x7 font with each character trimmed to its own width. */
+    public static final Font PROPORTIONAL_5X7 = new Font (DATA_5X7, ' ', 5, 7, true);
+    /** The 3x5 font with every character 3 pixels wide. */
+    public static final Font FIXED_3X5 = new Font (DATA_3X5, ' ', 3, 5, false);
+    /** The 3x5 font with each character trimmed to its own width. */
+    public static final Font PROPORTIONAL_3X5 = new Font (DATA_3X5, ' ', 3, 5, true);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.text;
+
+/**
+ * This class holds a single rasterised character. It's a column of bits for
+ * each pixel across, with bit y of a column being pixel y counting up from the
+ * bottom, the same way up as the matrices. Glyphs are immutable and built once
+ * by their Font.
+ *
+ * @author Jim Darby
+ */
+public final class Glyph
+{
+    /**
+     * Create a glyph from its columns. The array is copied.
+     *
+     * @param columns The columns, left to right, bit y being pixel y.
+     */
+    Glyph (int[] columns)
+    {
+        this.columns = columns.clone ();
+        WIDTH = columns.length;
+    }
+
+    /**
+     * Return the width of the glyph.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth ()
+    {
+        return WIDTH;
+    }
+
+    /**
+     * Return a column of the glyph.
+     *
+     * @param x The column, 0 is leftmost.
+     * @return The bits, bit y being pixel y.
+     */
+    public int getColumn (int x)
+    {
+        if (x < 0 || x >= WIDTH)
+            throw new IllegalArgumentException ("Invalid glyph column " + x);
+
+        return columns[x];
+    }
+
+    /** The width of the glyph. */
+    public final int WIDTH;
+    /** The columns of the glyph. */
+    private final int[] columns;
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.text;
+
+import java.io.IOException;
+
+import Jimbo.Graphics.BitMatrix;
+import Jimbo.Graphics.FramePacer;
+import Jimbo.Graphics.IntMatrix;
+import Jimbo.Graphics.PackedBitFrame;
+
+/**
+ * This class scrolls a TextStrip across a matrix. The text comes in from the
+ * right, goes off to the left and then starts again. Each step copies one
+ * window of the strip into a frame and hands that to the matrix in a single
+ * call, so the cost of a step doesn't depend on how long the text is.
+ *
+ * @author Jim Darby
+ */
+public class Marquee
+{
+    /**
+     * Scroll text across an on/off matrix.
+     *
+     * @param m The matrix. It can be up to 64 pixels wide.
+     * @param text The text.
+     */
+    public Marquee (BitMatrix m, TextStrip text)
+    {
+        bits = m;
+        levels = null;
+        on = 0;
+        frame = new PackedBitFrame (m);
+        buffer = null;
+        setText (text);
+    }
+
+    /**
+     * Scroll text across a matrix of levels.
+     *
+     * @param m The matrix. It can be up to 64 pixels wide.
+     * @param text The text.
+     * @param level The level for lit pixels: 0 to 255.
+     */
+    public Marquee (IntMatrix m, TextStrip text, int level)
+    {
+        if (level < 0 || level > 255)
+            throw new IllegalArgumentException ("Invalid level " + level);
+
+        bits = null;
+        levels = m;
+        on = (byte) level;
+        frame = new PackedBitFrame (m);
+        buffer = new byte[frame.WIDTH * frame.HEIGHT];
+        setText (text);
+    }
+
+    /**
+     * Change the text. This starts it scrolling in from the right again. The
+     * text is centred vertically on the matrix.
+     *
+     * @param text The new text. It must be no taller than the matrix; use
+     * Font.fitting to pick a font that is.
+     */
+    public final void setText (TextStrip text)
+    {
+        if (text.HEIGHT > frame.HEIGHT)
+            throw new IllegalArgumentException ("Text " + text.HEIGHT + " pixels high won't fit on a matrix " + frame.HEIGHT + " high");
+
+        this.text = text;
+        y = (frame.HEIGHT - text.HEIGHT) / 2;
+        restart ();
+    }
+
+    /**
+     * Return the text being scrolled.
+     *
+     * @return The text.
+     */
+    public TextStrip getText ()
+    {
+        return text;
+    }
+
+    /**
+     * Start the text scrolling in from the right again.
+     */
+    public void restart ()
+    {
+        offset = -frame.WIDTH;
+    }
+
+    /**
+     * Return the current position. This is the offset into the text of the
+     * matrix's left edge, so it starts negative.
+     *
+     * @return The position.
+     */
+    public int getPosition ()
+    {
+        return offset;
+    }
+
+    /**
+     * Move to a specific position.
+     *
+     * @param position The offset into the text of the matrix's left edge.
+     */
+    public void setPosition (int position)
+    {
+        offset = position;
+    }
+
+    /**
+     * Draw the current position into the matrix without showing it.
+     */
+    public void draw ()
+    {
+        text.getWindow (frame, offset, y);
+
+        if (bits != null)
+        {
+            bits.setPixels (frame, 0, 0);
+            return;
+        }
+
+        final long[] rows = frame.getRows ();
+
+        for (int j = 0; j < frame.HEIGHT; ++j)
+        {
+            final long row = rows[j];
+            final int base = frame.WIDTH * j;
+
+            for (int i = 0; i < frame.WIDTH; ++i)
+                buffer[base + i] = (((row >>> i) & 1L) != 0) ? on : 0;
+        }
+
+        levels.setPixels (buffer, 0, 0, frame.WIDTH, frame.HEIGHT);
+    }
+
+    /**
+     * Draw and show the current position and then move on a pixel.
+     *
+     * @return True if the text has just gone completely off the left and will
+     * start again on the next step.
+     *
+     * @throws IOException In case of trouble.
+     */
+    public boolean step () throws IOException
+    {
+        draw ();
+
+        if (bits != null)
+            bits.show ();
+        else
+            levels.show ();
+
+        if (++offset >= text.WIDTH)
+        {
+            restart ();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Scroll text round and round for ever, in the biggest font that fits.
+     *
+     * @param m The matrix.
+     * @param message The message to scroll.
+     * @param delay The delay between steps in milliseconds. Zero means step
+     * as fast as the matrix can be updated.
+     *
+     * @throws IOException In case of trouble.
+     * @throws InterruptedException If interrupted.
+     */
+    public static void run (BitMatrix m, String message, int delay) throws IOException, InterruptedException
+    {
+        if (delay < 0)
+            throw new IllegalArgumentException ("Invalid delay " + delay);
+
+        final Marquee marquee = new Marquee (m, new TextStrip (Font.fitting (m.getHeight ()), message));
+
+        if (delay == 0)
+        {
+            while (true)
+            {
+                marquee.step ();
+
+                if (Thread.interrupted ())
+                    throw new InterruptedException ();
+            }
+        }
+
+        final FramePacer pacer = new FramePacer (1000.0 / delay);
+
+        while (true)
+        {
+            marquee.step ();
+            pacer.sync ();
+        }
+    }
+
+    /** The matrix if it's on/off, otherwise null. */
+    private final BitMatrix bits;
+    /** The matrix if it's levels, otherwise null. */
+    private final IntMatrix levels;
+    /** The level used for lit pixels. */
+    private final byte on;
+    /** The frame we build each window in. */
+    private final PackedBitFrame frame;
+    /** The levels we expand the frame into, or null. */
+    private final byte[] buffer;
+    /** The text. */
+    private TextStrip text;
+    /** The row of the frame the bottom of the text goes on. */
+    private int y;
+    /** The offset into the text of the left edge. */
+    private int offset;
+}
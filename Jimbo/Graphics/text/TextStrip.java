@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026 Jim Darby.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Jimbo.Graphics.text;
+
+import Jimbo.Graphics.PackedBitFrame;
+
+/**
+ * This class holds a string rendered once into a strip of bits as wide as it
+ * needs to be. Each row is an array of longs with bit x of the row being
+ * pixel x. Any window of the strip up to 64 pixels wide can then be pulled
+ * out a row at a time with a couple of shifts, which is what makes scrolling
+ * cheap.
+ *
+ * @author Jim Darby
+ */
+public class TextStrip
+{
+    /**
+     * Render a string with one blank column between characters.
+     *
+     * @param font The font to use.
+     * @param text The text to render.
+     */
+    public TextStrip (Font font, String text)
+    {
+        this (font, text, 1);
+    }
+
+    /**
+     * Render a string.
+     *
+     * @param font The font to use.
+     * @param text The text to render.
+     * @param spacing The number of blank columns between characters.
+     */
+    public TextStrip (Font font, String text, int spacing)
+    {
+        if (spacing < 0)
+            throw new IllegalArgumentException ("Invalid spacing " + spacing);
+
+        WIDTH = font.getWidth (text, spacing);
+        HEIGHT = font.HEIGHT;
+        this.text = text;
+
+        // One spare word at the end so a window never has to check for the
+        // end of the row before reading the next word.
+        rows = new long[HEIGHT][(WIDTH + 63) / 64 + 1];
+
+        int x = 0;
+
+        for (int i = 0; i < text.length (); ++i)
+        {
+            final Glyph g = font.getGlyph (text.charAt (i));
+
+            for (int c = 0; c < g.WIDTH; ++c, ++x)
+            {
+                final int column = g.getColumn (c);
+
+                for (int y = 0; y < HEIGHT; ++y)
+                    if ((column & (1 << y)) != 0)
+                        rows[y][x >>> 6] |= 1L << (x & 63);
+            }
+
+            x += spacing;
+        }
+    }
+
+    /**
+     * Return the width of the strip.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth ()
+    {
+        return WIDTH;
+    }
+
+    /**
+     * Return the height of the strip.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight ()
+    {
+        return HEIGHT;
+    }
+
+    /**
+     * Return the text the strip was rendered from.
+     *
+     * @return The text.
+     */
+    public String getText ()
+    {
+        return text;
+    }
+
+    /**
+     * Return 64 pixels of a row starting at a given offset. Anything outside
+     * the strip, including negative offsets, is blank.
+     *
+     * @param y The row.
+     * @param offset The X offset into the strip of bit 0 of the result.
+     * @return The pixels with bit n being pixel offset + n.
+     */
+    public long getBits (int y, int offset)
+    {
+        if (y < 0 || y >= HEIGHT)
+            throw new IllegalArgumentException ("Invalid row " + y);
+
+        if (offset < 0)
+            return (offset <= -64) ? 0 : getBits (y, 0) << -offset;
+
+        final long[] row = rows[y];
+        final int word = offset >>> 6;
+        final int bit = offset & 63;
+
+        if (word >= row.length - 1)
+            return 0;
+
+        if (bit == 0)
+            return row[word];
+
+        return (row[word] >>> bit) | (row[word + 1] << (64 - bit));
+    }
+
+    /**
+     * Copy a window of the strip into a frame. The window is as wide as the
+     * frame. Rows of the frame outside the strip are cleared.
+     *
+     * @param f The frame to copy into.
+     * @param offset The X offset into the strip of the frame's left edge.
+     * @param y The row of the frame where the bottom of the strip goes.
+     */
+    public void getWindow (PackedBitFrame f, int offset, int y)
+    {
+        for (int row = 0; row < f.HEIGHT; ++row)
+        {
+            final int from = row - y;
+
+            f.setRow (row, (from >= 0 && from < HEIGHT) ? getBits (from, offset) : 0);
+        }
+    }
+
+    /** The width of the strip. */
+    public final int WIDTH;
+    /** The height of the strip. */
+    public final int HEIGHT;
+    /** The text it was rendered from. */
+    private final String text;
+
+    /** The pixels. Row y, pixel x is bit (x % 64) of rows[y][x / 64]. */
+    private final long[][] rows;
+}